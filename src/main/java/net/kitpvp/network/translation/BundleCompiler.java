@@ -0,0 +1,51 @@
+package net.kitpvp.network.translation;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.kitpvp.network.translation.format.TranslationBundle;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Compiles translation folders into a bundle loaded by {@link PropertyLocaleManager#fromBundle(LocaleManager, File)},
+ * meant to run at build time:
+ * <pre>
+ * java net.kitpvp.network.translation.BundleCompiler &lt;bundle&gt; &lt;folder&gt;...
+ * </pre>
+ * The folders are merged like {@link PropertyLocaleManager#PropertyLocaleManager(File[])} does.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BundleCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BundleCompiler <bundle> <folder>...");
+            System.exit(1);
+        }
+        File[] folders = Arrays.stream(args, 1, args.length).map(File::new).toArray(File[]::new);
+        compile(folders, new File(args[0]));
+    }
+
+    public static void compile(File[] folders, File bundle) throws IOException {
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(null, folders);
+
+        // replace the bundle at once, running servers may be reading it
+        File parent = bundle.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File temporary = File.createTempFile(bundle.getName(), ".tmp", parent);
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporary.toPath()))) {
+                TranslationBundle.write(localeManager.table().languages(), LocaleManager.DEFAULT, outputStream);
+            }
+            Files.move(temporary.toPath(), bundle.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package net.kitpvp.network.translation;
+
+import net.kitpvp.network.translation.format.TranslationBundle;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Table reading the translations of a mapped {@link TranslationBundle}, which decodes them on first use.
+ * The bundle was written with {@link LocaleManager#DEFAULT} as its fallback locale.
+ */
+final class BundleTranslationTable extends TranslationTable {
+
+    private final TranslationBundle bundle;
+
+    BundleTranslationTable(TranslationBundle bundle) {
+        super(bundle.getLocales().toArray(new Locale[0]));
+        this.bundle = bundle;
+    }
+
+    @Override
+    int row(String key) {
+        return this.bundle.find(key);
+    }
+
+    @Override
+    @Nullable TranslationFormat format(int row, int locale) {
+        return this.bundle.get(row, locale);
+    }
+
+    @Override
+    boolean isOwn(int row, int locale) {
+        return this.bundle.isOwn(row, locale);
+    }
+
+    @Override
+    String key(int row) {
+        return this.bundle.getKey(row);
+    }
+
+    @Override
+    int rows() {
+        return this.bundle.getKeyCount();
+    }
+
+    @Override
+    int size(int locale) {
+        return this.bundle.size(locale);
+    }
+}
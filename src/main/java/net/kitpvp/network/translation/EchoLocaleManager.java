@@ -14,4 +14,14 @@ public class EchoLocaleManager extends LocaleManager {
     public String translate(Locale locale, String translationKey, Object... args) {
         return translationKey;
     }
+
+    @Override
+    public StringBuilder translateTo(StringBuilder appendTo, Locale locale, String translationKey, Object... args) {
+        return appendTo.append(translationKey);
+    }
+
+    @Override
+    public int estimateLength(Locale locale, String translationKey) {
+        return translationKey.length();
+    }
 }
@@ -0,0 +1,119 @@
+package net.kitpvp.network.translation;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Open addressing table of translations loaded to the heap. Keys missing in a loaded locale are filled with
+ * their {@link LocaleManager#DEFAULT} translation when the table is built. It does not keep the maps it was
+ * built from.
+ */
+final class HeapTranslationTable extends TranslationTable {
+
+    // row of each key plus one, zero marks an empty slot
+    private final int[] index;
+    private final int mask;
+    private final String[] keys;
+    private final int[] hashes;
+    // row after row, one translation per loaded locale
+    private final TranslationFormat[] formats;
+    // translations a locale has itself rather than through the default
+    private final BitSet own;
+    private final int[] sizes;
+
+    HeapTranslationTable(Map<Locale, Map<String, TranslationFormat>> languages) {
+        super(languages.keySet().toArray(new Locale[0]));
+        int locales = this.locales();
+
+        Map<String, Integer> rows = new LinkedHashMap<>();
+        for (Map<String, TranslationFormat> translations : languages.values()) {
+            for (String key : translations.keySet()) {
+                rows.putIfAbsent(key, rows.size());
+            }
+        }
+
+        // keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(rows.size(), 1)) << 2;
+        this.index = new int[capacity];
+        this.mask = capacity - 1;
+        this.keys = rows.keySet().toArray(new String[0]);
+        this.hashes = new int[this.keys.length];
+        for (int row = 0; row < this.keys.length; row++) {
+            int hash = hash(this.keys[row]);
+            this.hashes[row] = hash;
+            int slot = hash & this.mask;
+            while (this.index[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.index[slot] = row + 1;
+        }
+
+        this.formats = new TranslationFormat[this.keys.length * locales];
+        this.own = new BitSet(this.formats.length);
+        this.sizes = new int[locales];
+        int locale = 0;
+        for (Map<String, TranslationFormat> translations : languages.values()) {
+            for (Map.Entry<String, TranslationFormat> translation : translations.entrySet()) {
+                int cell = rows.get(translation.getKey()) * locales + locale;
+                this.formats[cell] = translation.getValue();
+                this.own.set(cell);
+            }
+            this.sizes[locale++] = translations.size();
+        }
+        int defaultIndex = this.slot(LocaleManager.DEFAULT);
+        if (defaultIndex >= 0) {
+            for (int row = 0; row < this.keys.length; row++) {
+                TranslationFormat fallback = this.formats[row * locales + defaultIndex];
+                for (int cell = row * locales; cell < (row + 1) * locales; cell++) {
+                    if (this.formats[cell] == null)
+                        this.formats[cell] = fallback;
+                }
+            }
+        }
+    }
+
+    @Override
+    int row(String key) {
+        int hash = hash(key);
+        for (int slot = hash & this.mask; ; slot = (slot + 1) & this.mask) {
+            int row = this.index[slot] - 1;
+            if (row < 0)
+                return -1;
+            String candidate = this.keys[row];
+            if (this.hashes[row] == hash && (candidate == key || candidate.equals(key)))
+                return row;
+        }
+    }
+
+    @Override
+    @Nullable TranslationFormat format(int row, int locale) {
+        return this.formats[row * this.locales() + locale];
+    }
+
+    @Override
+    boolean isOwn(int row, int locale) {
+        return this.own.get(row * this.locales() + locale);
+    }
+
+    @Override
+    String key(int row) {
+        return this.keys[row];
+    }
+
+    @Override
+    int rows() {
+        return this.keys.length;
+    }
+
+    @Override
+    int size(int locale) {
+        return this.sizes[locale];
+    }
+
+    private static int hash(String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,63 @@
+package net.kitpvp.network.translation;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+/**
+ * Options controlling how a {@link PropertyLocaleManager} loads its translations.
+ * They apply to the initial load and every reload.
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class LoadOptions {
+
+    /**
+     * Executor reading and compiling the locale files in parallel, e.g. a {@link java.util.concurrent.ForkJoinPool}.
+     * Without an executor the files are loaded one after another on the calling thread.
+     */
+    private @Nullable Executor executor;
+
+    /**
+     * Whether translations are only checked for their basic structure while loading and compiled on first use.
+     * Cuts startup time and heap for large bundles of which only a fraction is used.
+     */
+    private boolean lazy;
+
+    /**
+     * Keys compiled for every locale right after loading when {@link #isLazy() lazy} loading is enabled.
+     */
+    private Collection<String> prewarm = Collections.emptySet();
+
+    /**
+     * Usage recorded by previous runs. Unless it is empty, the keys making up the {@link #getProfileCoverage() covered}
+     * share of the recorded translations are compiled and warmed right after loading, and all others are loaded
+     * {@link #isLazy() lazily}.
+     */
+    private @Nullable UsageProfile profile;
+
+    private double profileCoverage = 0.99;
+
+    /**
+     * Number of times every hot key of the {@link #getProfile() profile} is formatted while warming.
+     */
+    private int warmupRounds = 100;
+
+    /**
+     * Whether translations are stored compactly: identical translations and literal text are shared across
+     * locales, and the source of a translation is dropped once it is compiled unless {@link #isDebug() debugging}.
+     */
+    private boolean compact;
+
+    /**
+     * Whether compactly stored translations keep their source for {@link Object#toString()}.
+     * Defaults to the {@code net.kitpvp.translation.debug} system property.
+     */
+    private boolean debug = Boolean.getBoolean("net.kitpvp.translation.debug");
+}
@@ -1,24 +1,75 @@
 package net.kitpvp.network.translation;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import net.kitpvp.network.translation.exception.InvalidTranslationException;
 import net.kitpvp.network.translation.exception.MissingTranslationException;
+import net.kitpvp.network.translation.format.RangeFormat;
 import net.kitpvp.network.translation.format.TranslationFormat;
 import net.kitpvp.network.translation.substitute.Substitution;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public abstract class LocaleManager {
 
     public static final Locale DEFAULT = Locale.GERMANY;
+    private static final Object[] NO_ARGS = new Object[0];
+    // bumped whenever any manager publishes translations, invalidating the parent chain memos of all managers
+    // keys missing in every parent remembered at most per manager until a parent reloads
+    private static final int MAX_MISSING = 4096;
     @Getter
     @Setter
     private static LocaleManager instance = EchoLocaleManager.INSTANCE;
 
+    /**
+     * Translations of subclasses which fill them in place. Lookups read the table built by {@link #index()},
+     * which happens lazily when nothing was indexed yet or a lookup misses a translation put here, changed
+     * or removed translations only take effect on the next {@link #index()}.
+     *
+     * @deprecated build a new map and {@link #publish(Map)} it, which swaps all translations at once
+     */
+    @Deprecated
     protected final Map<Locale, Map<String, TranslationFormat>> languages = new HashMap<>();
     protected final LocaleManager parent;
+    // set if the class translates differently than its translations say, like EchoLocaleManager, its
+    // translations are then never formatted past it
+    private final boolean translates = overrides(this.getClass(), "translate", Locale.class, String.class, Object[].class);
+    private volatile TranslationTable table = TranslationTable.EMPTY;
+    /**
+     * Cache of formatted translations, none by default.
+     */
+    @Getter
+    @Setter
+    private volatile @Nullable TranslationCache cache;
+    /**
+     * Metrics receiving every translation made through this manager, none by default.
+     */
+    @Getter
+    @Setter
+    private volatile @Nullable TranslationMetrics metrics;
+    /**
+     * Profile counting the translations made through this manager, none by default. Unlike {@link #getMetrics()
+     * metrics} it keeps every fast path, at the cost of counting each translation.
+     */
+    @Getter
+    @Setter
+    private volatile @Nullable UsageProfile usageProfile;
+    /**
+     * Number of characters after which ranges in translations of this manager stop appending elements,
+     * see {@link RangeFormat}. There is no limit by default.
+     */
+    @Getter
+    private volatile int rangeOutputLimit = Integer.MAX_VALUE;
+    private volatile @Nullable ChainMemo memo;
+    private final LongAdder missingTranslations = new LongAdder();
 
     public LocaleManager(LocaleManager parent) {
         this.parent = parent;
@@ -29,7 +80,11 @@ public abstract class LocaleManager {
     }
 
     public List<Locale> getLoadedLocales() {
-        return new ArrayList<>(this.languages.keySet());
+        return new ArrayList<>(this.table().getLoadedLocales());
+    }
+
+    public Map<String, TranslationFormat> getTranslations(Locale locale) {
+        return this.table().getTranslations(locale);
     }
 
     @Deprecated
@@ -38,34 +93,553 @@ public abstract class LocaleManager {
         return this.translate(DEFAULT, translationKey, args);
     }
 
+    /**
+     * Translates a message without arguments, sparing the varargs array.
+     */
+    public final String translate(Locale locale, String translationKey) throws
+            InvalidTranslationException, MissingTranslationException {
+        return this.translate(locale, translationKey, NO_ARGS);
+    }
+
+    /**
+     * Translates a message with a single number argument, which reaches the number formatter unboxed and
+     * without an argument array. Missing translations, managers with metrics or a cache and classes overriding
+     * {@link #translate(Locale, String, Object...)} take the regular path.
+     */
+    public String translate(Locale locale, String translationKey, long value) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.findUnboxed(locale, translationKey);
+        if (translationFormat == null)
+            return this.translate(locale, translationKey, new Object[]{value});
+        this.recordUsage(locale, translationKey);
+        try {
+            return translationFormat.format(value);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(translationKey, cause);
+        }
+    }
+
+    public String translate(Locale locale, String translationKey, double value) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.findUnboxed(locale, translationKey);
+        if (translationFormat == null)
+            return this.translate(locale, translationKey, new Object[]{value});
+        this.recordUsage(locale, translationKey);
+        try {
+            return translationFormat.format(value);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(translationKey, cause);
+        }
+    }
+
+    /**
+     * Boxes the character, which would otherwise widen to {@link #translate(Locale, String, long)} and print its code.
+     */
+    public String translate(Locale locale, String translationKey, char value) throws
+            InvalidTranslationException, MissingTranslationException {
+        return this.translate(locale, translationKey, new Object[]{value});
+    }
+
+    /**
+     * Like {@link #translate(Locale, String, long)}, for messages with a string and a number argument.
+     */
+    public String translate(Locale locale, String translationKey, String first, long second) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.findUnboxed(locale, translationKey);
+        if (translationFormat == null)
+            return this.translate(locale, translationKey, new Object[]{first, second});
+        this.recordUsage(locale, translationKey);
+        try {
+            return translationFormat.format(first, second);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(translationKey, cause);
+        }
+    }
+
+    public String translate(Locale locale, String translationKey, String first, double second) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.findUnboxed(locale, translationKey);
+        if (translationFormat == null)
+            return this.translate(locale, translationKey, new Object[]{first, second});
+        this.recordUsage(locale, translationKey);
+        try {
+            return translationFormat.format(first, second);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(translationKey, cause);
+        }
+    }
+
+    public String translate(Locale locale, String translationKey, String first, char second) throws
+            InvalidTranslationException, MissingTranslationException {
+        return this.translate(locale, translationKey, new Object[]{first, second});
+    }
+
     public String translate(Locale locale, String translationKey, Object... args) throws
             InvalidTranslationException, MissingTranslationException {
+        TranslationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            String translation = this.translateMeasured(metrics, locale, translationKey, args);
+            if (translation != null)
+                return translation;
+            if (parent == null)
+                throw new MissingTranslationException(translationKey);
+            // parents may translate missing keys anyway
+            return parent.translate(locale, translationKey, args);
+        }
+        try {
+            TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+            if (translationFormat == null) {
+                if (parent == null)
+                    throw new MissingTranslationException(translationKey);
+                Resolved resolved = this.resolveParent(locale, translationKey);
+                if (resolved == null)
+                    return parent.translate(locale, translationKey, args);
+                if (resolved.format == null)
+                    return resolved.owner.translate(locale, translationKey, args);
+                this.recordUsage(locale, translationKey);
+                return resolved.owner.format(resolved.format, locale, translationKey, args);
+            }
+            this.recordUsage(locale, translationKey);
+            return this.format(translationFormat, locale, translationKey, args);
+        } catch (MissingTranslationException cause) {
+            this.missingTranslations.increment();
+            throw cause;
+        } catch (InvalidTranslationException cause){
+            throw cause;
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(translationKey, cause);
+        }
+    }
+
+    /**
+     * Translates a message if this manager or one of its parents has a translation of it, without the cost of a
+     * {@link MissingTranslationException}. Meant for optional keys.
+     *
+     * @return the translation, or {@code null} if it is missing
+     */
+    public @Nullable String tryTranslate(Locale locale, String translationKey, Object... args) throws
+            InvalidTranslationException {
+        TranslationMetrics metrics = this.metrics;
+        if (metrics != null)
+            return this.translateMeasured(metrics, locale, translationKey, args);
+        if (this.translates)
+            return translateThrough(this, locale, translationKey, args);
+        TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+        LocaleManager owner = this;
+        if (translationFormat == null) {
+            Resolved resolved = this.parent == null ? null : this.resolveParent(locale, translationKey);
+            String translation = resolved == null || resolved.format != null ? null
+                    : translateThrough(resolved.owner, locale, translationKey, args);
+            if (translation != null)
+                return translation;
+            if (resolved == null || resolved.format == null) {
+                this.missingTranslations.increment();
+                return null;
+            }
+            translationFormat = resolved.format;
+            owner = resolved.owner;
+        }
+        this.recordUsage(locale, translationKey);
+        return owner.format(translationFormat, locale, translationKey, args);
+    }
+
+    /**
+     * Translates like {@link #tryTranslate(Locale, String, Object...)} and reports the translation to the metrics.
+     */
+    private @Nullable String translateMeasured(TranslationMetrics metrics, Locale locale, String translationKey,
+                                               Object[] args) throws InvalidTranslationException {
+        TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+        TranslationTable table = this.table;
+        LocaleManager owner = this;
+        TranslationMetrics.Resolution resolution = TranslationMetrics.Resolution.HIT;
+        if (translationFormat != null) {
+            if (table.isFallback(locale, translationKey))
+                resolution = TranslationMetrics.Resolution.LOCALE_FALLBACK;
+        } else {
+            Resolved resolved = this.parent == null ? null : this.resolveParent(locale, translationKey);
+            String translation = resolved == null || resolved.format != null ? null
+                    : translateThrough(resolved.owner, locale, translationKey, args);
+            if (translation != null) {
+                metrics.translated(locale, translationKey, TranslationMetrics.Resolution.PARENT_FALLBACK, -1, translation.length());
+                return translation;
+            }
+            if (resolved == null || resolved.format == null) {
+                metrics.missing(locale, translationKey);
+                this.missingTranslations.increment();
+                return null;
+            }
+            translationFormat = resolved.format;
+            owner = resolved.owner;
+            resolution = TranslationMetrics.Resolution.PARENT_FALLBACK;
+        }
+
+        this.recordUsage(locale, translationKey);
+        boolean timed = metrics.isTimed();
+        long start = timed ? System.nanoTime() : 0;
+        String translation = owner.format(translationFormat, locale, translationKey, args);
+        metrics.translated(locale, translationKey, resolution, timed ? System.nanoTime() - start : -1, translation.length());
+        return translation;
+    }
+
+    /**
+     * Translates through a parent translating differently, if it or one of its parents has a translation.
+     */
+    private static @Nullable String translateThrough(LocaleManager manager, Locale locale, String translationKey,
+                                                     Object[] args) throws InvalidTranslationException {
+        if (manager.findFormat(locale, translationKey) == null)
+            return null;
+        try {
+            return manager.translate(locale, translationKey, args);
+        } catch (MissingTranslationException cause) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the translation of this manager or of the closest parent having one, or {@code null} if it is missing.
+     * Unlike {@link #translate(Locale, String, Object...)} parents translating missing keys anyway, like
+     * {@link EchoLocaleManager}, are not asked.
+     */
+    public @Nullable TranslationFormat findFormat(Locale locale, String translationKey) {
+        TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+        if (translationFormat != null || this.parent == null)
+            return translationFormat;
+        Resolved resolved = this.resolveParent(locale, translationKey);
+        if (resolved == null)
+            return null;
+        return resolved.format != null ? resolved.format : resolved.owner.findFormat(locale, translationKey);
+    }
+
+    /**
+     * Returns how many translations were missing when translating through this manager, including
+     * {@link #tryTranslate(Locale, String, Object...)}.
+     */
+    public long getMissingTranslations() {
+        return this.missingTranslations.sum();
+    }
+
+    /**
+     * Translates a message for several locales at once, e.g. for a broadcast. The key is looked up once per
+     * distinct locale and every distinct translation is formatted once, shared by all locales falling back to it.
+     *
+     * @return the translation of every distinct locale
+     */
+    public Map<Locale, String> translateAll(String translationKey, Collection<Locale> locales, Object... args) throws
+            InvalidTranslationException, MissingTranslationException {
+        Map<Locale, String> translations = new HashMap<>();
+        // every locale formats the same arguments
+        args = RangeFormat.collectStreams(args);
+        // substitutions are replaced in the arguments for one locale, the translation can't be shared then
+        boolean substitutions = hasSubstitutions(args);
+        Map<TranslationFormat, String> formatted = substitutions ? null : new IdentityHashMap<>();
+        for (Locale locale : locales) {
+            if (translations.containsKey(locale))
+                continue;
+            if (!this.formatsDirectly()) {
+                // measured or translated differently per locale, without sharing translations between them
+                translations.put(locale, this.translate(locale, translationKey, args.clone()));
+                continue;
+            }
+            TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+            LocaleManager owner = this;
+            if (translationFormat == null && this.parent != null) {
+                Resolved resolved = this.resolveParent(locale, translationKey);
+                if (resolved != null && resolved.format != null) {
+                    translationFormat = resolved.format;
+                    owner = resolved.owner;
+                }
+            }
+            String translation;
+            if (translationFormat != null)
+                this.recordUsage(locale, translationKey);
+            if (translationFormat == null) {
+                translation = this.translate(locale, translationKey, substitutions ? args.clone() : args);
+            } else if (formatted == null) {
+                translation = owner.format(translationFormat, locale, translationKey, args.clone());
+            } else {
+                translation = formatted.get(translationFormat);
+                if (translation == null) {
+                    translation = owner.format(translationFormat, locale, translationKey, args);
+                    formatted.put(translationFormat, translation);
+                }
+            }
+            translations.put(locale, translation);
+        }
+        return translations;
+    }
+
+    /**
+     * Translates a message for every recipient, formatting it once per distinct locale like
+     * {@link #translateAll(String, Collection, Object...)}, and hands the translations to the consumer
+     * in the order of the recipients.
+     */
+    public <R> void translateEach(Collection<? extends R> recipients, Function<? super R, Locale> localeOf,
+                                  BiConsumer<? super R, String> consumer, String translationKey, Object... args) throws
+            InvalidTranslationException, MissingTranslationException {
+        List<Locale> locales = new ArrayList<>(recipients.size());
+        for (R recipient : recipients) {
+            locales.add(localeOf.apply(recipient));
+        }
+        Map<Locale, String> translations = this.translateAll(translationKey, locales, args);
+        Iterator<Locale> locale = locales.iterator();
+        for (R recipient : recipients) {
+            consumer.accept(recipient, translations.get(locale.next()));
+        }
+    }
+
+    /**
+     * Creates a handle for a translation key which skips hashing the key on every call.
+     * Handles stay valid when the translations are reloaded and are meant to be kept in constants.
+     */
+    public TranslationKey key(String translationKey) {
+        return new TranslationKey(this, translationKey);
+    }
+
+    /**
+     * Returns the expected length of the given translation, or {@code -1} if it is missing.
+     * Callers that pool their buffers can use it to size them before {@link #translateTo}.
+     */
+    public int estimateLength(Locale locale, String translationKey) {
+        TranslationFormat translationFormat = this.findInChain(locale, translationKey);
+        if (translationFormat == null) {
+            return parent == null ? -1 : parent.estimateLength(locale, translationKey);
+        }
+        return translationFormat.estimateLength();
+    }
+
+    /**
+     * Translates into the given builder instead of creating a new string. On failure the
+     * builder is reset to its previous length.
+     */
+    public StringBuilder translateTo(StringBuilder appendTo, Locale locale, String translationKey, Object... args) throws
+            InvalidTranslationException, MissingTranslationException {
+        if (!this.formatsDirectly())
+            return appendTo.append(this.translate(locale, translationKey, args));
+        int length = appendTo.length();
         try {
             TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+            LocaleManager owner = this;
             if (translationFormat == null) {
                 if (parent == null)
                     throw new MissingTranslationException(translationKey);
-                return parent.translate(locale, translationKey, args);
+                Resolved resolved = this.resolveParent(locale, translationKey);
+                if (resolved == null)
+                    return parent.translateTo(appendTo, locale, translationKey, args);
+                if (resolved.format == null)
+                    return resolved.owner.translateTo(appendTo, locale, translationKey, args);
+                translationFormat = resolved.format;
+                owner = resolved.owner;
             }
-            return translationFormat.format(this.applySubstitutions(locale, args), new StringBuffer()).toString();
-        } catch (MissingTranslationException | InvalidTranslationException cause){
+            this.recordUsage(locale, translationKey);
+            return translationFormat.format(owner.applySubstitutions(locale, args), appendTo, owner.rangeOutputLimit);
+        } catch (MissingTranslationException cause) {
+            appendTo.setLength(length);
+            this.missingTranslations.increment();
+            throw cause;
+        } catch (InvalidTranslationException cause){
+            appendTo.setLength(length);
             throw cause;
         } catch (Throwable cause) {
+            appendTo.setLength(length);
             throw new InvalidTranslationException(translationKey, cause);
         }
     }
 
+    public <A extends Appendable> A translateTo(A appendTo, Locale locale, String translationKey, Object... args) throws
+            IOException, InvalidTranslationException, MissingTranslationException {
+        if (appendTo instanceof StringBuilder) {
+            this.translateTo((StringBuilder) appendTo, locale, translationKey, args);
+        } else {
+            appendTo.append(this.translateTo(new StringBuilder(), locale, translationKey, args));
+        }
+        return appendTo;
+    }
+
+    final String format(TranslationFormat translationFormat, Locale locale, String translationKey, Object[] args) throws
+            InvalidTranslationException {
+        TranslationCache cache = this.cache;
+        // literal messages and messages without arguments are returned as they are, cheaper than a cache lookup
+        TranslationCache.Key key = cache != null && args.length > 0 && !translationFormat.isLiteral()
+                ? cache.key(translationFormat, translationKey, args) : null;
+        if (key != null) {
+            String translation = cache.get(key);
+            if (translation != null)
+                return translation;
+        }
+        String translation;
+        try {
+            translation = translationFormat.format(this.applySubstitutions(locale, args), this.rangeOutputLimit);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(translationKey, cause);
+        }
+        if (key != null)
+            cache.put(key, translation);
+        return translation;
+    }
+
+    public void setRangeOutputLimit(int rangeOutputLimit) {
+        if (rangeOutputLimit <= 0)
+            throw new IllegalArgumentException("range output limit must be positive: " + rangeOutputLimit);
+        this.rangeOutputLimit = rangeOutputLimit;
+        TranslationCache cache = this.cache;
+        if (cache != null)
+            cache.clear();
+    }
+
+    final void recordUsage(Locale locale, String translationKey) {
+        UsageProfile usageProfile = this.usageProfile;
+        if (usageProfile != null)
+            usageProfile.record(locale, translationKey);
+    }
+
+    final TranslationTable table() {
+        TranslationTable table = this.table;
+        if (table == TranslationTable.EMPTY && !this.languages.isEmpty()) {
+            // filled by a subclass which never indexed them
+            this.index();
+            table = this.table;
+        }
+        return table;
+    }
+
     protected final @Nullable TranslationFormat findTranslation(Locale locale, String translationKey) {
-        if (!this.languages.containsKey(locale)) {
-            return findTranslation(DEFAULT, translationKey);
+        TranslationFormat translationFormat = this.table.find(locale, translationKey);
+        if (translationFormat == null && !this.languages.isEmpty() && this.isUnindexed(locale, translationKey)) {
+            this.index();
+            translationFormat = this.table.find(locale, translationKey);
         }
+        return translationFormat;
+    }
+
+    /**
+     * Returns whether {@link #languages} has a translation of the key which was not indexed yet.
+     */
+    private boolean isUnindexed(Locale locale, String translationKey) {
+        Map<String, TranslationFormat> translations = this.languages.get(locale);
+        if (translations != null && translations.get(translationKey) != null)
+            return true;
+        translations = this.languages.get(DEFAULT);
+        return translations != null && translations.get(translationKey) != null;
+    }
+
+    /**
+     * Finds the translation of this manager or, if it has none, of the closest parent having one. Translations
+     * past a parent translating differently are not returned, they have to be translated through that parent.
+     */
+    private @Nullable TranslationFormat findInChain(Locale locale, String translationKey) {
+        TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+        if (translationFormat != null || this.parent == null)
+            return translationFormat;
+        Resolved resolved = this.resolveParent(locale, translationKey);
+        return resolved == null ? null : resolved.format;
+    }
+
+    /**
+     * Finds the translation the primitive overloads may format unboxed, or {@code null} if the key has to be
+     * translated through {@link #translate(Locale, String, Object...)}, which formats through the cache, limits
+     * ranges and reports to the metrics, or is overridden.
+     */
+    private @Nullable TranslationFormat findUnboxed(Locale locale, String translationKey) {
+        if (!this.formatsUnboxed())
+            return null;
+        TranslationFormat translationFormat = this.findTranslation(locale, translationKey);
+        if (translationFormat != null || this.parent == null)
+            return translationFormat;
+        Resolved resolved = this.resolveParent(locale, translationKey);
+        return resolved == null || !resolved.owner.formatsUnboxed() ? null : resolved.format;
+    }
+
+    /**
+     * Returns whether translations of this manager may be formatted without calling
+     * {@link #translate(Locale, String, Object...)}, which is not the case with metrics or if a subclass overrides it.
+     */
+    final boolean formatsDirectly() {
+        return this.metrics == null && !this.translates;
+    }
+
+    /**
+     * Returns whether translations of this manager may be formatted with unboxed arguments, which skips
+     * the cache and the range output limit.
+     */
+    final boolean formatsUnboxed() {
+        return this.formatsDirectly() && this.cache == null && this.rangeOutputLimit == Integer.MAX_VALUE;
+    }
+
+    /**
+     * Finds the closest parent manager with a translation of the key, like translating through every parent
+     * would, but remembers the result until one of the parents reloads. Results are remembered for the locale
+     * the parents resolve, locales none of them loaded resolve like {@link #DEFAULT}. Keys missing in every parent
+     * are remembered
+     * up to a limit, translating them is still left to the parents, which may translate them differently,
+     * like {@link EchoLocaleManager}. A parent overriding {@link #translate(Locale, String, Object...)} ends
+     * the search with a result without format, the key has to be translated through it.
+     */
+    private @Nullable Resolved resolveParent(Locale locale, String translationKey) {
+        ChainMemo memo = this.memo;
+        if (memo == null || !memo.isCurrent(this.parent))
+            this.memo = memo = new ChainMemo(this.parent);
 
-        if (!this.languages.get(locale).containsKey(translationKey)) {
-            if (!locale.equals(DEFAULT))
-                return this.findTranslation(DEFAULT, translationKey);
+        Locale resolvedLocale = memo.loaded.contains(locale) ? locale : DEFAULT;
+        Map<String, Resolved> resolvedKeys = memo.locales.get(resolvedLocale);
+        Resolved resolved = resolvedKeys == null ? null : resolvedKeys.get(translationKey);
+        if (resolved != null)
+            return resolved == Resolved.MISSING ? null : resolved;
+        for (LocaleManager manager = this.parent; manager != null; manager = manager.parent) {
+            if (manager.translates) {
+                resolved = new Resolved(manager, null);
+                break;
+            }
+            TranslationFormat translationFormat = manager.findTranslation(locale, translationKey);
+            if (translationFormat != null) {
+                resolved = new Resolved(manager, translationFormat);
+                memo.locales.computeIfAbsent(resolvedLocale, key -> new ConcurrentHashMap<>()).put(translationKey, resolved);
+                return resolved;
+            }
         }
+        // keys no translation was found for count as missing, the count saturates so repeated misses can't overflow it
+        if (memo.missing.getAndUpdate(count -> count < MAX_MISSING ? count + 1 : count) < MAX_MISSING)
+            memo.locales.computeIfAbsent(resolvedLocale, key -> new ConcurrentHashMap<>())
+                    .put(translationKey, resolved != null ? resolved : Resolved.MISSING);
+        return resolved;
+    }
 
-        return this.languages.get(locale).get(translationKey);
+    /**
+     * Rebuilds the lookup table from {@link #languages}. Subclasses filling them call this once they are done
+     * modifying the loaded translations, lookups keep using the previous table until then.
+     */
+    protected void index() {
+        this.publish(this.languages);
+    }
+
+    /**
+     * Replaces all translations of this manager at once. The map must not be modified afterwards,
+     * concurrent lookups see either the previous or the new translations but never a mix of both.
+     */
+    protected final void publish(Map<Locale, Map<String, TranslationFormat>> languages) {
+        this.publish(new HeapTranslationTable(languages));
+    }
+
+    final void publish(TranslationTable table) {
+        this.table = table;
+        TranslationCache cache = this.cache;
+        if (cache != null)
+            cache.clear();
+    }
+
+    private static boolean overrides(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes).getDeclaringClass() != LocaleManager.class;
+        } catch (NoSuchMethodException cause) {
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static boolean hasSubstitutions(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Substitution)
+                return true;
+        }
+        return false;
     }
 
     protected Object[] applySubstitutions(Locale locale, Object[] args) {
@@ -77,4 +651,46 @@ public abstract class LocaleManager {
         }
         return args;
     }
+
+    @RequiredArgsConstructor
+    private static final class Resolved {
+
+        private static final Resolved MISSING = new Resolved(null, null);
+
+        private final LocaleManager owner;
+        private final TranslationFormat format;
+    }
+
+    private static final class ChainMemo {
+
+        // tables of the parents asked for translations, up to the first one translating differently
+        private final TranslationTable[] tables;
+        // locales loaded by any of these parents
+        private final Set<Locale> loaded = new HashSet<>();
+        private final Map<Locale, Map<String, Resolved>> locales = new ConcurrentHashMap<>();
+        private final AtomicInteger missing = new AtomicInteger();
+
+        private ChainMemo(@Nullable LocaleManager parent) {
+            List<TranslationTable> tables = new ArrayList<>();
+            for (LocaleManager manager = parent; manager != null && !manager.translates; manager = manager.parent) {
+                TranslationTable table = manager.table;
+                tables.add(table);
+                this.loaded.addAll(table.getLoadedLocales());
+            }
+            this.tables = tables.toArray(new TranslationTable[0]);
+        }
+
+        /**
+         * Checks whether none of the parents published new translations since the memo was created.
+         */
+        private boolean isCurrent(@Nullable LocaleManager parent) {
+            LocaleManager manager = parent;
+            for (TranslationTable table : this.tables) {
+                if (manager.table != table)
+                    return false;
+                manager = manager.parent;
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,220 @@
+package net.kitpvp.network.translation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming reader for UTF-8 {@code .properties} files, following the syntax of {@link java.util.Properties#load(Reader)}.
+ * Every key/value pair is handed to a {@link Handler} as soon as it was read, together with the line it starts on,
+ * instead of collecting all of them in a {@link java.util.Properties} first.
+ */
+final class PropertiesReader {
+
+    private final Reader reader;
+    private final String source;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int pending = -1;
+
+    // current logical line, with escapes but without comments and line continuations
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder converted = new StringBuilder();
+    private int lineNumber = 1;
+    private int start;
+
+    private PropertiesReader(Reader reader, String source) {
+        this.reader = reader;
+        this.source = source;
+    }
+
+    /**
+     * Reads all properties of the stream, which is closed afterwards.
+     *
+     * @param source name of the stream used in error messages
+     * @throws IllegalArgumentException if the stream contains a malformed {@code \}{@code uxxxx} escape
+     */
+    static void read(InputStream inputStream, String source, Handler handler) throws IOException {
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            new PropertiesReader(reader, source).read(handler);
+        }
+    }
+
+    private void read(Handler handler) throws IOException {
+        while (this.nextLine()) {
+            int length = this.line.length();
+            int keyLength = 0;
+            int valueStart = length;
+            boolean hasSeparator = false;
+            boolean backslash = false;
+            while (keyLength < length) {
+                char c = this.line.charAt(keyLength);
+                if ((c == '=' || c == ':') && !backslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if (isWhitespace(c) && !backslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+                backslash = c == '\\' && !backslash;
+                keyLength++;
+            }
+            while (valueStart < length) {
+                char c = this.line.charAt(valueStart);
+                if (!isWhitespace(c)) {
+                    if (!hasSeparator && (c == '=' || c == ':')) {
+                        hasSeparator = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            String key = this.convert(0, keyLength);
+            String value = this.convert(valueStart, length);
+            handler.property(key, value, this.start);
+        }
+    }
+
+    /**
+     * Reads the next logical line into {@link #line}, skipping blank lines and comments and joining continued lines.
+     *
+     * @return whether a line was read before the end of the stream
+     */
+    private boolean nextLine() throws IOException {
+        this.line.setLength(0);
+        int c;
+        while (true) {
+            c = this.next();
+            if (c < 0)
+                return false;
+            if (c == '\r' || c == '\n') {
+                this.endLine(c);
+            } else if (c == '#' || c == '!') {
+                while (c >= 0 && c != '\r' && c != '\n') {
+                    c = this.next();
+                }
+                if (c >= 0)
+                    this.endLine(c);
+            } else if (!isWhitespace(c)) {
+                break;
+            }
+        }
+
+        this.start = this.lineNumber;
+        boolean backslash = false;
+        while (c >= 0) {
+            if (c == '\r' || c == '\n') {
+                this.endLine(c);
+                if (!backslash)
+                    return true;
+                // an odd number of backslashes continues the line, without its leading whitespace
+                this.line.setLength(this.line.length() - 1);
+                backslash = false;
+                do {
+                    c = this.next();
+                } while (c >= 0 && isWhitespace(c));
+                continue;
+            }
+            this.line.append((char) c);
+            backslash = c == '\\' && !backslash;
+            c = this.next();
+        }
+        if (backslash)
+            this.line.setLength(this.line.length() - 1);
+        return true;
+    }
+
+    private void endLine(int c) throws IOException {
+        this.lineNumber++;
+        if (c == '\r') {
+            int lookahead = this.next();
+            if (lookahead != '\n')
+                this.pending = lookahead;
+        }
+    }
+
+    private int next() throws IOException {
+        if (this.pending != -1) {
+            int c = this.pending;
+            this.pending = -1;
+            return c;
+        }
+        if (this.position == this.limit) {
+            this.limit = this.reader.read(this.buffer);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return -1;
+            }
+        }
+        return this.buffer[this.position++];
+    }
+
+    private String convert(int from, int to) {
+        StringBuilder converted = this.converted;
+        converted.setLength(0);
+        int i = from;
+        while (i < to) {
+            char c = this.line.charAt(i++);
+            if (c != '\\' || i == to) {
+                converted.append(c);
+                continue;
+            }
+            c = this.line.charAt(i++);
+            switch (c) {
+                case 'u':
+                    if (i + 4 > to)
+                        throw this.malformed();
+                    int value = 0;
+                    for (int end = i + 4; i < end; i++) {
+                        char digit = this.line.charAt(i);
+                        if (digit >= '0' && digit <= '9') {
+                            value = (value << 4) + digit - '0';
+                        } else if (digit >= 'a' && digit <= 'f') {
+                            value = (value << 4) + 10 + digit - 'a';
+                        } else if (digit >= 'A' && digit <= 'F') {
+                            value = (value << 4) + 10 + digit - 'A';
+                        } else {
+                            throw this.malformed();
+                        }
+                    }
+                    converted.append((char) value);
+                    break;
+                case 't':
+                    converted.append('\t');
+                    break;
+                case 'r':
+                    converted.append('\r');
+                    break;
+                case 'n':
+                    converted.append('\n');
+                    break;
+                case 'f':
+                    converted.append('\f');
+                    break;
+                default:
+                    converted.append(c);
+                    break;
+            }
+        }
+        return converted.toString();
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed \\uxxxx encoding at " + this.source + ":" + this.start);
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    interface Handler {
+
+        void property(String key, String value, int line);
+    }
+}
@@ -2,39 +2,56 @@ package net.kitpvp.network.translation;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import net.kitpvp.json.JsonConfig;
 import net.kitpvp.json.JsonReader;
-import net.kitpvp.network.translation.exception.InvalidTranslationException;
-import net.kitpvp.network.translation.exception.MissingTranslationException;
+import net.kitpvp.network.translation.format.TranslationBundle;
 import net.kitpvp.network.translation.format.TranslationFormat;
+import net.kitpvp.network.translation.format.TranslationPool;
 import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 public class PropertyLocaleManager extends LocaleManager {
 
-    private final List<Locale> loaded = new ArrayList<>();
+    private final LoadOptions options;
+    private volatile File[] folders;
+    // serializes every reload, so a slower one never publishes older translations over a newer one
+    final Object reloadLock = new Object();
+    // translations being loaded by init(File[]), null outside of a load
+    private Map<Locale, Map<String, TranslationFormat>> loading;
 
     public PropertyLocaleManager(File folder) throws IOException {
-        super();
-        this.init(folder);
+        this(null, folder);
     }
 
     public PropertyLocaleManager(LocaleManager parent, File folder) throws IOException {
-        super(parent);
-        this.init(folder);
+        this(parent, folder, new LoadOptions());
+    }
+
+    public PropertyLocaleManager(LocaleManager parent, File folder, LoadOptions options) throws IOException {
+        this(parent, new File[]{folder}, options);
     }
 
     public PropertyLocaleManager(File[] folders) throws IOException {
-        super();
-        this.init(folders);
+        this(null, folders);
     }
 
     public PropertyLocaleManager(LocaleManager parent, File[] folders) throws IOException {
+        this(parent, folders, new LoadOptions());
+    }
+
+    public PropertyLocaleManager(LocaleManager parent, File[] folders, LoadOptions options) throws IOException {
         super(parent);
-        this.init(folders);
+        this.options = options;
+        this.load(folders);
     }
 
     public PropertyLocaleManager(LocaleManager parent, String classpath) throws IOException {
@@ -46,112 +63,344 @@ public class PropertyLocaleManager extends LocaleManager {
     }
 
     public PropertyLocaleManager(LocaleManager parent, Class<?> source, String classpath) throws IOException {
-        super(parent);
-        this.init(source, classpath);
+        this(parent, source, classpath, new LoadOptions());
     }
 
     public PropertyLocaleManager(Class<?> source, String classpath) throws IOException{
-        super();
-        this.init(source, classpath);
+        this(null, source, classpath);
+    }
+
+    public PropertyLocaleManager(LocaleManager parent, Class<?> source, String classpath, LoadOptions options) throws IOException {
+        super(parent);
+        this.options = options;
+        this.load(source, classpath);
+    }
+
+    private PropertyLocaleManager(LocaleManager parent, LoadOptions options) {
+        super(parent);
+        this.options = options;
+    }
+
+    /**
+     * Creates a locale manager serving the translations of a bundle written by {@link BundleCompiler}.
+     */
+    public static PropertyLocaleManager fromBundle(LocaleManager parent, File bundle) throws IOException {
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(parent, new LoadOptions());
+        localeManager.reloadBundle(bundle);
+        return localeManager;
+    }
+
+    /**
+     * Loads the translations from a bundle written by {@link BundleCompiler} and replaces the current ones at once.
+     * The translations are already compiled, so the load options do not apply.
+     */
+    public void reloadBundle(File bundle) throws IOException {
+        synchronized (this.reloadLock) {
+            TranslationTable table = new BundleTranslationTable(TranslationBundle.open(bundle));
+            this.postInit(table.languages(), bundle.getAbsolutePath());
+            this.publish(table);
+            this.folders = null;
+        }
     }
 
+    /**
+     * Loads the translations from the given folder and replaces the current ones at once.
+     * Translations are served from the previous state until loading completed, if loading fails they are kept.
+     */
     public void reloadLocaleManager(File folder) throws IOException {
-        this.languages.clear();
-        this.init(folder);
+        this.load(folder);
     }
 
     public void reloadLocaleManager(File[] folders) throws IOException {
-        this.languages.clear();
-        this.init(folders);
+        this.load(folders);
     }
 
-    @Override
-    public List<Locale> getLoadedLocales() {
-        return this.loaded;
+    /**
+     * Watches the folders the translations were loaded from and applies changes to their locale files
+     * incrementally, see {@link PropertyLocaleWatcher}. The returned watcher has to be closed.
+     */
+    public PropertyLocaleWatcher watch(long debounce, TimeUnit unit) throws IOException {
+        File[] folders = this.folders;
+        if (folders == null)
+            throw new IllegalStateException("Translations were not loaded from a folder");
+        return new PropertyLocaleWatcher(this, folders, unit.toMillis(debounce));
     }
 
-    @Override
-    public String translate(Locale locale, String translationKey, Object... args)
-            throws InvalidTranslationException, MissingTranslationException {
-        return super.translate(locale, translationKey, args);
+    boolean isLoadedFromFolders() {
+        return this.folders != null;
     }
 
-    private void initLocale(String language, String country, String version, InputStream inputStream) throws IOException {
-        Locale locale = country == null ? new Locale(language) : new Locale(language, country);
-        Properties properties = new Properties();
-        try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
-            properties.load(streamReader);
-            if(!this.languages.containsKey(locale)) {
-                this.languages.put(locale, new HashMap<>());
+    private void load(File folder) throws IOException {
+        this.load(new File[]{folder});
+    }
+
+    private void load(File[] folders) throws IOException {
+        synchronized (this.reloadLock) {
+            Map<Locale, Map<String, TranslationFormat>> languages = new LinkedHashMap<>();
+            this.loading = languages;
+            try {
+                this.init(folders);
+            } finally {
+                this.loading = null;
             }
-            for(String entry : properties.stringPropertyNames()) {
-                String value = properties.getProperty(entry);
+            this.prewarm(languages);
+            this.publish(languages);
+            this.folders = folders.clone();
+        }
+    }
 
-                if(value == null)
+    private void load(Class<?> source, String classpath) throws IOException {
+        synchronized (this.reloadLock) {
+            Map<Locale, Map<String, TranslationFormat>> languages = new LinkedHashMap<>();
+            this.init(languages, source, classpath);
+            this.prewarm(languages);
+            this.publish(languages);
+        }
+    }
+
+    private void prewarm(Map<Locale, Map<String, TranslationFormat>> languages) {
+        for (String translationKey : this.options.getPrewarm()) {
+            for (Map<String, TranslationFormat> translations : languages.values()) {
+                TranslationFormat translationFormat = translations.get(translationKey);
+                if (translationFormat == null)
                     continue;
 
                 try {
-                    this.languages.get(locale).put(entry, new TranslationFormat(value, locale));
+                    translationFormat.compile();
                 } catch (IllegalArgumentException cause) {
-                    throw new IllegalArgumentException("Could not parse translation key " + entry + ": '" + value + "'", cause);
+                    throw new IllegalArgumentException("Could not parse translation key " + translationKey, cause);
                 }
             }
+        }
 
-            this.loaded.add(locale);
+        UsageProfile profile = this.options.getProfile();
+        if (profile == null)
+            return;
+        Map<String, TranslationFormat> fallback = languages.getOrDefault(DEFAULT, Collections.emptyMap());
+        for (Map.Entry<Locale, Set<String>> hotKeys : profile.getHotKeys(this.options.getProfileCoverage()).entrySet()) {
+            Map<String, TranslationFormat> translations = languages.getOrDefault(hotKeys.getKey(), fallback);
+            for (String translationKey : hotKeys.getValue()) {
+                TranslationFormat translationFormat = translations.get(translationKey);
+                if (translationFormat == null)
+                    translationFormat = fallback.get(translationKey);
+                // keys of parent managers are warmed by them
+                if (translationFormat == null)
+                    continue;
+
+                try {
+                    translationFormat.warm(this.options.getWarmupRounds());
+                } catch (IllegalArgumentException cause) {
+                    throw new IllegalArgumentException("Could not parse translation key " + translationKey, cause);
+                }
+            }
         }
     }
 
-    private void init(Class<?> source, String classpath) throws IOException {
+    private boolean isLazy() {
+        UsageProfile profile = this.options.getProfile();
+        return this.options.isLazy() || (profile != null && !profile.isEmpty());
+    }
+
+    private void init(Map<Locale, Map<String, TranslationFormat>> languages, Class<?> source, String classpath) throws IOException {
+        List<LocaleFile> localeFiles;
         try (InputStream languageStream = source.getResourceAsStream(classpath + "/language.json")) {
             if(languageStream == null)
                 throw new FileNotFoundException(classpath + "/language.json");
-            JsonArray array = JsonReader.readToJson(languageStream).getAsJsonArray();
-
-            for(JsonElement element : array) {
-                String language = JsonConfig.readString(element, null, "language");
-                String country = JsonConfig.readString(element, null, "country");
-                String file = JsonConfig.readString(element, null, "file");
-                String version = JsonConfig.readString(element, null, "version");
+            localeFiles = readIndex(languageStream);
+        }
 
-                try (InputStream inputStream = source.getResourceAsStream(classpath + "/" + file)){
-                    this.initLocale(language, country, version, inputStream);
+        TranslationPool pool = this.pool();
+        List<LocaleTask> tasks = new ArrayList<>(localeFiles.size());
+        for(LocaleFile localeFile : localeFiles) {
+            tasks.add(() -> {
+                String name = classpath + "/" + localeFile.getFile();
+                try (InputStream inputStream = source.getResourceAsStream(name)){
+                    if (inputStream == null)
+                        throw new FileNotFoundException(name);
+                    return compileLocale(localeFile.getLocale(), inputStream, name, pool);
                 }
-            }
+            });
         }
-        this.postInit(classpath);
+        merge(languages, localeFiles, this.run(tasks).iterator());
+        this.postInit(languages, classpath);
     }
 
+    /**
+     * Loads the translations of the folders, called for every load from folders. Outside of a load they are
+     * added to the current translations, which are published again with them.
+     */
     protected void init(File[] folders) throws IOException {
+        synchronized (this.reloadLock) {
+            Map<Locale, Map<String, TranslationFormat>> languages = this.loading;
+            if (languages != null) {
+                this.init(languages, folders);
+                return;
+            }
+            languages = new LinkedHashMap<>();
+            for (Map.Entry<Locale, Map<String, TranslationFormat>> entry : this.table().languages().entrySet()) {
+                languages.put(entry.getKey(), new HashMap<>(entry.getValue()));
+            }
+            this.init(languages, folders);
+            this.publish(languages);
+        }
+    }
+
+    protected void init(Map<Locale, Map<String, TranslationFormat>> languages, File[] folders) throws IOException {
+        // compile the files of all folders at once, but merge them in order
+        TranslationPool pool = this.pool();
+        List<List<LocaleFile>> indexes = new ArrayList<>(folders.length);
+        List<LocaleTask> tasks = new ArrayList<>();
         for (File folder : folders) {
-            this.init(folder);
+            List<LocaleFile> localeFiles = readIndex(folder);
+            indexes.add(localeFiles);
+            for(LocaleFile localeFile : localeFiles) {
+                File file = new File(folder, localeFile.getFile());
+                tasks.add(() -> {
+                    try (InputStream inputStream = FileUtils.openInputStream(file)){
+                        return compileLocale(localeFile.getLocale(), inputStream, file.getPath(), pool);
+                    }
+                });
+            }
+        }
+
+        Iterator<Map<String, TranslationFormat>> results = this.run(tasks).iterator();
+        for (int i = 0; i < folders.length; i++) {
+            merge(languages, indexes.get(i), results);
+            this.postInit(languages, folders[i].getAbsolutePath());
         }
     }
 
-    private void init(File folder) throws IOException {
-        try (InputStream languageStream = FileUtils.openInputStream(new File(folder, "language.json"))) {
-            JsonArray array = JsonReader.readToJson(languageStream).getAsJsonArray();
+    private Map<String, TranslationFormat> compileLocale(Locale locale, InputStream inputStream, String name,
+                                                         @Nullable TranslationPool pool) throws IOException {
+        Map<String, TranslationFormat> translations = new HashMap<>();
+        PropertiesReader.read(inputStream, name, (key, value, line) ->
+                translations.put(key, this.compile(key, value, locale, pool, name + ":" + line)));
+        return translations;
+    }
 
-            for(JsonElement element : array) {
-                String language = JsonConfig.readString(element, null, "language");
-                String country = JsonConfig.readString(element, null, "country");
-                File file = new File(folder, JsonConfig.readString(element, null, "file"));
-                String version = JsonConfig.readString(element, null, "version");
+    private static void merge(Map<Locale, Map<String, TranslationFormat>> languages, List<LocaleFile> localeFiles,
+                              Iterator<Map<String, TranslationFormat>> results) {
+        for (LocaleFile localeFile : localeFiles) {
+            languages.merge(localeFile.getLocale(), results.next(), (previous, translations) -> {
+                previous.putAll(translations);
+                return previous;
+            });
+        }
+    }
 
-                try (InputStream inputStream = FileUtils.openInputStream(file)){
-                    this.initLocale(language, country, version, inputStream);
-                }
+    /**
+     * Runs the tasks on the executor of the load options, or one after another if there is none.
+     * Results and failures are reported in the order of the tasks, regardless of which task finished first.
+     */
+    private List<Map<String, TranslationFormat>> run(List<LocaleTask> tasks) throws IOException {
+        List<Map<String, TranslationFormat>> results = new ArrayList<>(tasks.size());
+        Executor executor = this.options.getExecutor();
+        if (executor == null) {
+            for (LocaleTask task : tasks) {
+                results.add(task.load());
+            }
+            return results;
+        }
+
+        List<FutureTask<Map<String, TranslationFormat>>> futures = new ArrayList<>(tasks.size());
+        for (LocaleTask task : tasks) {
+            FutureTask<Map<String, TranslationFormat>> future = new FutureTask<>(task::load);
+            futures.add(future);
+            executor.execute(future);
+        }
+        try {
+            for (FutureTask<Map<String, TranslationFormat>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException cause) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading locales");
+        } catch (ExecutionException cause) {
+            Throwable failure = cause.getCause();
+            if (failure instanceof IOException)
+                throw (IOException) failure;
+            if (failure instanceof RuntimeException)
+                throw (RuntimeException) failure;
+            if (failure instanceof Error)
+                throw (Error) failure;
+            throw new IOException(failure);
+        } finally {
+            for (FutureTask<Map<String, TranslationFormat>> future : futures) {
+                future.cancel(true);
             }
         }
-        this.postInit(folder.getAbsolutePath());
     }
 
-    private void postInit(String path) {
+    private void postInit(Map<Locale, Map<String, TranslationFormat>> languages, String path) {
         StringBuilder builder = new StringBuilder();
-        for(Locale locale : this.getLoadedLocales()) {
+        for(Map.Entry<Locale, Map<String, TranslationFormat>> entry : languages.entrySet()) {
             if(builder.length() > 0)
                 builder.append(" | ");
-            builder.append(locale).append(" (").append(this.languages.get(locale).size()).append(" keys)");
+            builder.append(entry.getKey()).append(" (").append(entry.getValue().size()).append(" keys)");
         }
         System.out.println("Loaded locales from " + path + ": " + builder);
     }
+
+    static List<LocaleFile> readIndex(File folder) throws IOException {
+        try (InputStream languageStream = FileUtils.openInputStream(new File(folder, "language.json"))) {
+            return readIndex(languageStream);
+        }
+    }
+
+    private static List<LocaleFile> readIndex(InputStream languageStream) throws IOException {
+        JsonArray array = JsonReader.readToJson(languageStream).getAsJsonArray();
+        List<LocaleFile> localeFiles = new ArrayList<>(array.size());
+        for(JsonElement element : array) {
+            String language = JsonConfig.readString(element, null, "language");
+            String country = JsonConfig.readString(element, null, "country");
+            String file = JsonConfig.readString(element, null, "file");
+
+            Locale locale = country == null ? new Locale(language) : new Locale(language, country);
+            localeFiles.add(new LocaleFile(locale, file));
+        }
+        return localeFiles;
+    }
+
+    static Map<String, String> readProperties(InputStream inputStream, String name) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        PropertiesReader.read(inputStream, name, (key, value, line) -> values.put(key, value));
+        return values;
+    }
+
+    /**
+     * Creates the pool shared by the translations compiled in one go, or returns {@code null} unless they are stored compactly.
+     */
+    @Nullable TranslationPool pool() {
+        return this.options.isCompact() ? new TranslationPool(this.options.isDebug()) : null;
+    }
+
+    TranslationFormat compile(String translationKey, String value, Locale locale, @Nullable TranslationPool pool) {
+        return this.compile(translationKey, value, locale, pool, null);
+    }
+
+    private TranslationFormat compile(String translationKey, String value, Locale locale, @Nullable TranslationPool pool,
+                                      @Nullable String location) {
+        try {
+            if (pool != null)
+                return this.isLazy() ? pool.lazy(value, locale) : pool.compile(value, locale);
+            return this.isLazy() ? TranslationFormat.lazy(value, locale) : new TranslationFormat(value, locale);
+        } catch (IllegalArgumentException cause) {
+            throw new IllegalArgumentException("Could not parse translation key " + translationKey
+                    + (location != null ? " at " + location : "") + ": '" + value + "'", cause);
+        }
+    }
+
+    private interface LocaleTask {
+
+        Map<String, TranslationFormat> load() throws IOException;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static final class LocaleFile {
+
+        private final Locale locale;
+        private final String file;
+    }
 }
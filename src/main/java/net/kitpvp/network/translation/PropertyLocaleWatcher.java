@@ -0,0 +1,199 @@
+package net.kitpvp.network.translation;
+
+import net.kitpvp.network.translation.PropertyLocaleManager.LocaleFile;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import net.kitpvp.network.translation.format.TranslationPool;
+import org.apache.commons.io.FileUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the folders of a {@link PropertyLocaleManager} and applies changed locale files incrementally:
+ * changed files are reparsed, and only the translations whose text changed are compiled again.
+ * Bursts of writes are applied together once the folders were quiet for the debounce delay.
+ * A changed {@code language.json} reloads all translations.
+ * <p>
+ * Created through {@link PropertyLocaleManager#watch(long, TimeUnit)}.
+ */
+public final class PropertyLocaleWatcher implements Closeable {
+
+    private static final String INDEX = "language.json";
+
+    private final PropertyLocaleManager localeManager;
+    private final File[] folders;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    // raw values of every locale file, keyed by the absolute file
+    private final Map<File, Map<String, String>> sources = new HashMap<>();
+    // locale files of every locale, in the order they are merged
+    private final Map<Locale, List<File>> files = new LinkedHashMap<>();
+    // merged raw values of every locale, as currently compiled
+    private final Map<Locale, Map<String, String>> values = new HashMap<>();
+    // table the values belong to, any other one was published by a reload of the manager
+    private TranslationTable published;
+
+    PropertyLocaleWatcher(PropertyLocaleManager localeManager, File[] folders, long debounceMillis) throws IOException {
+        this.localeManager = localeManager;
+        this.folders = folders;
+        this.debounceMillis = debounceMillis;
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (File folder : folders) {
+            folder.toPath().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        synchronized (localeManager.reloadLock) {
+            this.readSources();
+        }
+        this.thread = new Thread(this::run, "translation-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+        this.thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<File> changed = new HashSet<>();
+                this.collect(this.watchService.take(), changed);
+                WatchKey key;
+                while ((key = this.watchService.poll(this.debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    this.collect(key, changed);
+                }
+
+                try {
+                    this.apply(changed);
+                } catch (IOException | RuntimeException cause) {
+                    // keep serving the previous translations until the files are fixed
+                    System.err.println("Could not reload locales from " + Arrays.toString(this.folders) + ": " + cause);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // watcher was closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<File> changed) {
+        Path folder = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost, treat it like a changed index
+                changed.add(new File(folder.toFile(), INDEX).getAbsoluteFile());
+            } else {
+                changed.add(folder.resolve((Path) event.context()).toFile().getAbsoluteFile());
+            }
+        }
+        key.reset();
+    }
+
+    private void apply(Set<File> changed) throws IOException {
+        synchronized (this.localeManager.reloadLock) {
+            this.applyLocked(changed);
+        }
+    }
+
+    private void applyLocked(Set<File> changed) throws IOException {
+        // the manager was switched to a bundle, which the folders must not overwrite
+        if (!this.localeManager.isLoadedFromFolders())
+            return;
+        for (File file : changed) {
+            if (file.getName().equals(INDEX)) {
+                this.localeManager.reloadLocaleManager(this.folders);
+                this.readSources();
+                return;
+            }
+        }
+
+        Set<Locale> locales = new LinkedHashSet<>();
+        for (Map.Entry<Locale, List<File>> entry : this.files.entrySet()) {
+            for (File file : entry.getValue()) {
+                // editors often replace files, wait for the new file to appear
+                if (changed.contains(file) && file.isFile()) {
+                    this.sources.put(file, read(file));
+                    locales.add(entry.getKey());
+                }
+            }
+        }
+        if (locales.isEmpty())
+            return;
+
+        TranslationTable table = this.localeManager.table();
+        // after a reload the values no longer tell which translations are up to date, compile all of them again
+        boolean reloaded = table != this.published;
+        Map<Locale, Map<String, TranslationFormat>> current = table.languages();
+        Map<Locale, Map<String, TranslationFormat>> languages = new LinkedHashMap<>(current);
+        StringBuilder builder = new StringBuilder();
+        Map<Locale, Map<String, String>> merged = new HashMap<>();
+        TranslationPool pool = this.localeManager.pool();
+        for (Locale locale : locales) {
+            Map<String, TranslationFormat> previous = current.getOrDefault(locale, Collections.emptyMap());
+            Map<String, String> previousValues = reloaded ? Collections.emptyMap()
+                    : this.values.getOrDefault(locale, Collections.emptyMap());
+            Map<String, String> values = this.merge(locale);
+            Map<String, TranslationFormat> translations = new HashMap<>();
+            int compiled = 0;
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                TranslationFormat translationFormat = previous.get(entry.getKey());
+                if (translationFormat == null || !entry.getValue().equals(previousValues.get(entry.getKey()))) {
+                    translationFormat = this.localeManager.compile(entry.getKey(), entry.getValue(), locale, pool);
+                    compiled++;
+                }
+                translations.put(entry.getKey(), translationFormat);
+            }
+            languages.put(locale, translations);
+            merged.put(locale, values);
+
+            if (builder.length() > 0)
+                builder.append(" | ");
+            builder.append(locale).append(" (").append(compiled).append(" of ").append(translations.size()).append(" keys changed)");
+        }
+        this.localeManager.publish(languages);
+        this.published = this.localeManager.table();
+        this.values.putAll(merged);
+        System.out.println("Reloaded locales from " + Arrays.toString(this.folders) + ": " + builder);
+    }
+
+    private Map<String, String> merge(Locale locale) {
+        Map<String, String> merged = new HashMap<>();
+        for (File file : this.files.get(locale)) {
+            merged.putAll(this.sources.get(file));
+        }
+        return merged;
+    }
+
+    private void readSources() throws IOException {
+        this.sources.clear();
+        this.files.clear();
+        for (File folder : this.folders) {
+            for (LocaleFile localeFile : PropertyLocaleManager.readIndex(folder)) {
+                File file = new File(folder, localeFile.getFile()).getAbsoluteFile();
+                this.sources.put(file, read(file));
+                this.files.computeIfAbsent(localeFile.getLocale(), key -> new ArrayList<>()).add(file);
+            }
+        }
+        this.values.clear();
+        for (Locale locale : this.files.keySet()) {
+            this.values.put(locale, this.merge(locale));
+        }
+        this.published = this.localeManager.table();
+    }
+
+    private static Map<String, String> read(File file) throws IOException {
+        try (InputStream inputStream = FileUtils.openInputStream(file)) {
+            return PropertyLocaleManager.readProperties(inputStream, file.getPath());
+        }
+    }
+}
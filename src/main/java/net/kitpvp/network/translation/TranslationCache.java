@@ -0,0 +1,176 @@
+package net.kitpvp.network.translation;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of formatted translations, set through {@link LocaleManager#setCache(TranslationCache)}.
+ * Messages formatted again with the same arguments, like scoreboard lines, are then returned without formatting.
+ * <p>
+ * Entries are keyed by the resolved translation and the argument values, only messages whose arguments are all
+ * immutable ({@link String}s, boxed primitives, enums or {@code null}) are cached. The cache is split into segments
+ * each evicting its least recently used entry, and is cleared whenever the translations are reloaded.
+ */
+public final class TranslationCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Set<String> excluded = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize number of translations kept at most
+     */
+    public TranslationCache(int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("maximum size must be positive: " + maximumSize);
+        int capacity = (maximumSize + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(capacity, this.evictions);
+        }
+    }
+
+    /**
+     * Never caches the given key, e.g. for messages whose arguments rarely repeat.
+     */
+    public void exclude(String translationKey) {
+        this.excluded.add(translationKey);
+    }
+
+    public void include(String translationKey) {
+        this.excluded.remove(translationKey);
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the key of a message, or {@code null} if it can not be cached.
+     */
+    @Nullable Key key(TranslationFormat translationFormat, String translationKey, Object[] args) {
+        for (Object arg : args) {
+            if (!isImmutable(arg))
+                return null;
+        }
+        if (!this.excluded.isEmpty() && this.excluded.contains(translationKey))
+            return null;
+        return new Key(translationFormat, args);
+    }
+
+    @Nullable String get(Key key) {
+        Segment segment = this.segment(key);
+        String translation;
+        synchronized (segment) {
+            translation = segment.get(key);
+        }
+        (translation != null ? this.hits : this.misses).increment();
+        return translation;
+    }
+
+    void put(Key key, String translation) {
+        // the arguments belong to the caller, who may reuse the array
+        Key copy = new Key(key.translationFormat, key.args.clone(), key.hash);
+        Segment segment = this.segment(key);
+        synchronized (segment) {
+            segment.put(copy, translation);
+        }
+    }
+
+    private Segment segment(Key key) {
+        return this.segments[(key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static boolean isImmutable(@Nullable Object arg) {
+        return arg == null || arg instanceof String || arg instanceof Integer || arg instanceof Long
+                || arg instanceof Double || arg instanceof Boolean || arg instanceof Enum || arg instanceof Character
+                || arg instanceof Short || arg instanceof Byte || arg instanceof Float;
+    }
+
+    static final class Key {
+
+        private final TranslationFormat translationFormat;
+        private final Object[] args;
+        private final int hash;
+
+        Key(TranslationFormat translationFormat, Object[] args) {
+            this(translationFormat, args, System.identityHashCode(translationFormat) * 31 + Arrays.hashCode(args));
+        }
+
+        private Key(TranslationFormat translationFormat, Object[] args, int hash) {
+            this.translationFormat = translationFormat;
+            this.args = args;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return this.hash == key.hash && this.translationFormat == key.translationFormat
+                    && Arrays.equals(this.args, key.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, String> {
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+            if (this.size() <= this.capacity)
+                return false;
+            this.evictions.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package net.kitpvp.network.translation;
+
+import lombok.Getter;
+import net.kitpvp.network.translation.exception.InvalidTranslationException;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * A translation key resolved against the translations of a {@link LocaleManager}.
+ * Created through {@link LocaleManager#key(String)}.
+ */
+public final class TranslationKey {
+
+    private final LocaleManager localeManager;
+    @Getter
+    private final String key;
+    private Slots slots;
+
+    TranslationKey(LocaleManager localeManager, String key) {
+        this.localeManager = localeManager;
+        this.key = key;
+        this.slots = new Slots(localeManager.table(), key);
+    }
+
+    public String translate(Locale locale, Object... args) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.resolve(locale);
+        if (translationFormat == null || !this.localeManager.formatsDirectly()) {
+            // missing translations are resolved through the parent managers
+            return this.localeManager.translate(locale, this.key, args);
+        }
+        this.localeManager.recordUsage(locale, this.key);
+        return this.localeManager.format(translationFormat, locale, this.key, args);
+    }
+
+    public String translate(Locale locale, long value) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.resolveUnboxed(locale);
+        if (translationFormat == null)
+            return this.localeManager.translate(locale, this.key, value);
+        this.localeManager.recordUsage(locale, this.key);
+        try {
+            return translationFormat.format(value);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(this.key, cause);
+        }
+    }
+
+    public String translate(Locale locale, double value) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.resolveUnboxed(locale);
+        if (translationFormat == null)
+            return this.localeManager.translate(locale, this.key, value);
+        this.localeManager.recordUsage(locale, this.key);
+        try {
+            return translationFormat.format(value);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(this.key, cause);
+        }
+    }
+
+    /**
+     * Boxes the character, see {@link LocaleManager#translate(Locale, String, char)}.
+     */
+    public String translate(Locale locale, char value) throws
+            InvalidTranslationException, MissingTranslationException {
+        return this.translate(locale, new Object[]{value});
+    }
+
+    public String translate(Locale locale, String first, long second) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.resolveUnboxed(locale);
+        if (translationFormat == null)
+            return this.localeManager.translate(locale, this.key, first, second);
+        this.localeManager.recordUsage(locale, this.key);
+        try {
+            return translationFormat.format(first, second);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(this.key, cause);
+        }
+    }
+
+    public String translate(Locale locale, String first, double second) throws
+            InvalidTranslationException, MissingTranslationException {
+        TranslationFormat translationFormat = this.resolveUnboxed(locale);
+        if (translationFormat == null)
+            return this.localeManager.translate(locale, this.key, first, second);
+        this.localeManager.recordUsage(locale, this.key);
+        try {
+            return translationFormat.format(first, second);
+        } catch (Throwable cause) {
+            throw new InvalidTranslationException(this.key, cause);
+        }
+    }
+
+    public String translate(Locale locale, String first, char second) throws
+            InvalidTranslationException, MissingTranslationException {
+        return this.translate(locale, new Object[]{first, second});
+    }
+
+    /**
+     * Resolves the translation the primitive overloads may format unboxed,
+     * see {@link LocaleManager#translate(Locale, String, long)}.
+     */
+    private @Nullable TranslationFormat resolveUnboxed(Locale locale) {
+        return this.localeManager.formatsUnboxed() ? this.resolve(locale) : null;
+    }
+
+    private @Nullable TranslationFormat resolve(Locale locale) {
+        TranslationTable table = this.localeManager.table();
+        Slots slots = this.slots;
+        if (slots.table != table) {
+            // translations were reloaded since the key was last resolved
+            this.slots = slots = new Slots(table, this.key);
+        }
+
+        int slot = table.slot(locale);
+        return slot < 0 ? null : slots.formats[slot];
+    }
+
+    @Override
+    public String toString() {
+        return "TranslationKey{" +
+                "key='" + key + '\'' +
+                '}';
+    }
+
+    private static final class Slots {
+
+        private final TranslationTable table;
+        private final TranslationFormat[] formats;
+
+        private Slots(TranslationTable table, String key) {
+            this.table = table;
+            this.formats = table.resolve(key);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.kitpvp.network.translation;
+
+import java.util.Locale;
+
+/**
+ * Receives every translation made through a {@link LocaleManager}, set through
+ * {@link LocaleManager#setMetrics(TranslationMetrics)}. Managers without metrics skip measuring entirely.
+ * <p>
+ * Implementations are called from every translating thread and should only update counters,
+ * like {@link TranslationStatistics} does.
+ */
+public interface TranslationMetrics {
+
+    /**
+     * Returns whether the next translation is timed, e.g. for every n-th call. Reading the clock
+     * costs more than the other measurements, so it is only done when sampled.
+     */
+    boolean isTimed();
+
+    /**
+     * Called after a translation was formatted.
+     *
+     * @param formatNanos time spent formatting, or {@code -1} if the translation was not {@link #isTimed() timed}
+     * @param length      length of the translated message
+     */
+    void translated(Locale locale, String translationKey, Resolution resolution, long formatNanos, int length);
+
+    /**
+     * Called when neither the manager nor any parent has a translation of the key.
+     */
+    void missing(Locale locale, String translationKey);
+
+    enum Resolution {
+        /**
+         * Translated by the manager in the requested locale.
+         */
+        HIT,
+        /**
+         * Translated by the manager in {@link LocaleManager#DEFAULT}, the requested locale lacks the key.
+         */
+        LOCALE_FALLBACK,
+        /**
+         * Translated by a parent manager.
+         */
+        PARENT_FALLBACK
+    }
+}
@@ -0,0 +1,200 @@
+package net.kitpvp.network.translation;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link TranslationMetrics} counting calls per locale and key in {@link LongAdder}s and recording the format time
+ * of sampled calls in histograms with power of two buckets. {@link #snapshot()} exports the current counts,
+ * e.g. to a metrics pipeline polling it periodically.
+ * <p>
+ * Keys beyond the configured maximum are counted as {@link #OTHER}, so dynamically built keys can't grow the
+ * statistics without bound.
+ */
+public final class TranslationStatistics implements TranslationMetrics {
+
+    public static final String OTHER = "<other>";
+
+    private final int sampleRate;
+    private final int maximumKeys;
+    private final Map<Locale, Map<String, Counters>> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger keys = new AtomicInteger();
+
+    public TranslationStatistics() {
+        this(64, 10000);
+    }
+
+    /**
+     * @param sampleRate  one out of this many translations is timed on average
+     * @param maximumKeys number of (locale, key) pairs counted separately
+     */
+    public TranslationStatistics(int sampleRate, int maximumKeys) {
+        if (sampleRate <= 0)
+            throw new IllegalArgumentException("sample rate must be positive: " + sampleRate);
+        this.sampleRate = sampleRate;
+        this.maximumKeys = maximumKeys;
+    }
+
+    @Override
+    public boolean isTimed() {
+        return this.sampleRate == 1 || ThreadLocalRandom.current().nextInt(this.sampleRate) == 0;
+    }
+
+    @Override
+    public void translated(Locale locale, String translationKey, Resolution resolution, long formatNanos, int length) {
+        Counters counters = this.counters(locale, translationKey);
+        switch (resolution) {
+            case HIT:
+                counters.hits.increment();
+                break;
+            case LOCALE_FALLBACK:
+                counters.localeFallbacks.increment();
+                break;
+            case PARENT_FALLBACK:
+                counters.parentFallbacks.increment();
+                break;
+        }
+        counters.characters.add(length);
+        if (formatNanos >= 0)
+            counters.record(formatNanos);
+    }
+
+    @Override
+    public void missing(Locale locale, String translationKey) {
+        this.counters(locale, translationKey).misses.increment();
+    }
+
+    /**
+     * Returns the counts of every (locale, key) pair translated since creation or the last {@link #reset()}.
+     */
+    public List<KeyStatistics> snapshot() {
+        List<KeyStatistics> snapshot = new ArrayList<>();
+        for (Map.Entry<Locale, Map<String, Counters>> locale : this.counters.entrySet()) {
+            for (Map.Entry<String, Counters> key : locale.getValue().entrySet()) {
+                snapshot.add(key.getValue().snapshot(locale.getKey(), key.getKey()));
+            }
+        }
+        return snapshot;
+    }
+
+    public void reset() {
+        this.counters.clear();
+        this.keys.set(0);
+    }
+
+    private Counters counters(Locale locale, String translationKey) {
+        Map<String, Counters> keys = this.counters.get(locale);
+        if (keys == null)
+            keys = this.counters.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        Counters counters = keys.get(translationKey);
+        if (counters != null)
+            return counters;
+        if (this.keys.get() >= this.maximumKeys)
+            translationKey = OTHER;
+        return keys.computeIfAbsent(translationKey, key -> {
+            this.keys.incrementAndGet();
+            return new Counters();
+        });
+    }
+
+    private static final class Counters {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder localeFallbacks = new LongAdder();
+        private final LongAdder parentFallbacks = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder characters = new LongAdder();
+        private final LongAdder formatNanos = new LongAdder();
+        // bucket i counts times from 2^i to 2^(i+1) - 1 nanoseconds
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        void record(long nanos) {
+            this.formatNanos.add(nanos);
+            this.buckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos | 1));
+        }
+
+        KeyStatistics snapshot(Locale locale, String translationKey) {
+            long[] buckets = new long[Long.SIZE];
+            long timed = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = this.buckets.get(i);
+                timed += buckets[i];
+            }
+            return new KeyStatistics(locale, translationKey, this.hits.sum(), this.localeFallbacks.sum(),
+                    this.parentFallbacks.sum(), this.misses.sum(), this.characters.sum(), timed,
+                    this.formatNanos.sum(), percentile(buckets, timed, 0.5), percentile(buckets, timed, 0.99));
+        }
+
+        /**
+         * Returns the upper bound of the bucket containing the percentile, or {@code 0} without timed calls.
+         */
+        private static long percentile(long[] buckets, long timed, double percentile) {
+            long rank = (long) Math.ceil(timed * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0)
+                    return (2L << i) - 1;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Counts of one (locale, key) pair at the time of the {@link #snapshot()}.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+    public static final class KeyStatistics {
+
+        private final Locale locale;
+        private final String key;
+        private final long hits;
+        private final long localeFallbacks;
+        private final long parentFallbacks;
+        private final long misses;
+        /**
+         * Total length of the translated messages.
+         */
+        private final long characters;
+        private final long timedCalls;
+        /**
+         * Total format time of the timed calls.
+         */
+        private final long formatNanos;
+        private final long formatNanosP50;
+        private final long formatNanosP99;
+
+        public long getCalls() {
+            return this.hits + this.localeFallbacks + this.parentFallbacks + this.misses;
+        }
+
+        @Override
+        public String toString() {
+            return "KeyStatistics{" +
+                    "locale=" + locale +
+                    ", key='" + key + '\'' +
+                    ", hits=" + hits +
+                    ", localeFallbacks=" + localeFallbacks +
+                    ", parentFallbacks=" + parentFallbacks +
+                    ", misses=" + misses +
+                    ", characters=" + characters +
+                    ", timedCalls=" + timedCalls +
+                    ", formatNanos=" + formatNanos +
+                    ", formatNanosP50=" + formatNanosP50 +
+                    ", formatNanosP99=" + formatNanosP99 +
+                    '}';
+        }
+    }
+}
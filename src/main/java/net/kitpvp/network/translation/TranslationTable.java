@@ -0,0 +1,207 @@
+package net.kitpvp.network.translation;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Immutable table resolving a (locale, key) pair to its translation in a single probe. Every key owns a row
+ * holding its translation for each loaded locale. Keys missing in a loaded locale resolve to their
+ * {@link LocaleManager#DEFAULT} translation, which is filled in before the table is used, locales that were
+ * never loaded use the translations of the default.
+ * <p>
+ * A table is the complete snapshot of the translations of a {@link LocaleManager}, reloading publishes
+ * a new one. The maps it returns are views of the rows.
+ */
+abstract class TranslationTable {
+
+    static final TranslationTable EMPTY = new HeapTranslationTable(Collections.emptyMap());
+
+    private final Locale[] loaded;
+    private final int defaultIndex;
+    // slot of each loaded locale plus one by the hash of the locale, zero marks an empty slot
+    private final int[] localeIndex;
+
+    TranslationTable(Locale[] loaded) {
+        this.loaded = loaded;
+        this.defaultIndex = Arrays.asList(loaded).indexOf(LocaleManager.DEFAULT);
+        this.localeIndex = new int[Integer.highestOneBit(Math.max(loaded.length, 1)) << 2];
+        for (int locale = 0; locale < loaded.length; locale++) {
+            int slot = loaded[locale].hashCode() & (this.localeIndex.length - 1);
+            while (this.localeIndex[slot] != 0) {
+                slot = (slot + 1) & (this.localeIndex.length - 1);
+            }
+            this.localeIndex[slot] = locale + 1;
+        }
+    }
+
+    /**
+     * Returns the row of the key, or {@code -1} if no locale has a translation of it.
+     */
+    abstract int row(String key);
+
+    /**
+     * Returns the translation of a row for the loaded locale at the given index, including the default.
+     */
+    abstract @Nullable TranslationFormat format(int row, int locale);
+
+    /**
+     * Returns whether the loaded locale at the given index has the translation of a row itself.
+     */
+    abstract boolean isOwn(int row, int locale);
+
+    abstract String key(int row);
+
+    abstract int rows();
+
+    /**
+     * Returns how many translations the loaded locale at the given index has itself.
+     */
+    abstract int size(int locale);
+
+    /**
+     * Returns the translations of every loaded locale, without those it falls back to.
+     */
+    Map<Locale, Map<String, TranslationFormat>> languages() {
+        Map<Locale, Map<String, TranslationFormat>> languages = new LinkedHashMap<>();
+        for (int locale = 0; locale < this.loaded.length; locale++) {
+            languages.put(this.loaded[locale], new Translations(locale));
+        }
+        return Collections.unmodifiableMap(languages);
+    }
+
+    List<Locale> getLoadedLocales() {
+        return Arrays.asList(this.loaded.clone());
+    }
+
+    Map<String, TranslationFormat> getTranslations(Locale locale) {
+        int slot = this.indexOf(locale);
+        return slot < 0 ? Collections.emptyMap() : new Translations(slot);
+    }
+
+    @Nullable TranslationFormat find(Locale locale, String key) {
+        int slot = this.slot(locale);
+        if (slot < 0)
+            return null;
+        int row = this.row(key);
+        return row < 0 ? null : this.format(row, slot);
+    }
+
+    /**
+     * Returns whether the key is resolved through the {@link LocaleManager#DEFAULT} translation, because
+     * the locale was not loaded or lacks the key.
+     */
+    boolean isFallback(Locale locale, String key) {
+        int slot = this.indexOf(locale);
+        int row = slot < 0 ? -1 : this.row(key);
+        return row < 0 || !this.isOwn(row, slot);
+    }
+
+    /**
+     * Returns the slot of the given locale in the arrays returned by {@link #resolve(String)},
+     * or {@code -1} if neither the locale nor {@link LocaleManager#DEFAULT} is loaded.
+     */
+    int slot(Locale locale) {
+        int slot = this.indexOf(locale);
+        return slot < 0 ? this.defaultIndex : slot;
+    }
+
+    /**
+     * Resolves the translations of a key for every loaded locale, indexed by {@link #slot(Locale)}.
+     */
+    TranslationFormat[] resolve(String key) {
+        TranslationFormat[] resolved = new TranslationFormat[this.loaded.length];
+        int row = this.row(key);
+        if (row >= 0) {
+            for (int locale = 0; locale < resolved.length; locale++) {
+                resolved[locale] = this.format(row, locale);
+            }
+        }
+        return resolved;
+    }
+
+    final int locales() {
+        return this.loaded.length;
+    }
+
+    private int indexOf(Locale locale) {
+        // locales cache their hash code, so this costs no more than scanning a handful of them
+        int mask = this.localeIndex.length - 1;
+        for (int slot = locale.hashCode() & mask; ; slot = (slot + 1) & mask) {
+            int index = this.localeIndex[slot] - 1;
+            if (index < 0)
+                return -1;
+            Locale candidate = this.loaded[index];
+            if (candidate == locale || candidate.equals(locale))
+                return index;
+        }
+    }
+
+    /**
+     * The translations a loaded locale has itself.
+     */
+    private final class Translations extends AbstractMap<String, TranslationFormat> {
+
+        private final int locale;
+
+        private Translations(int locale) {
+            this.locale = locale;
+        }
+
+        @Override
+        public int size() {
+            return TranslationTable.this.size(this.locale);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.get(key) != null;
+        }
+
+        @Override
+        public @Nullable TranslationFormat get(Object key) {
+            int row = key instanceof String ? row((String) key) : -1;
+            return row >= 0 && isOwn(row, this.locale) ? format(row, this.locale) : null;
+        }
+
+        @Override
+        public Set<Entry<String, TranslationFormat>> entrySet() {
+            return new AbstractSet<Entry<String, TranslationFormat>>() {
+                @Override
+                public int size() {
+                    return Translations.this.size();
+                }
+
+                @Override
+                public Iterator<Entry<String, TranslationFormat>> iterator() {
+                    return new Iterator<Entry<String, TranslationFormat>>() {
+                        private int row = this.skip(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.row < rows();
+                        }
+
+                        @Override
+                        public Entry<String, TranslationFormat> next() {
+                            if (this.row >= rows())
+                                throw new NoSuchElementException();
+                            Entry<String, TranslationFormat> entry = new SimpleImmutableEntry<>(
+                                    key(this.row), format(this.row, locale));
+                            this.row = this.skip(this.row + 1);
+                            return entry;
+                        }
+
+                        private int skip(int row) {
+                            while (row < rows() && !isOwn(row, locale)) {
+                                row++;
+                            }
+                            return row;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package net.kitpvp.network.translation;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how often every (locale, key) pair is translated, so the next start of the server can compile and warm
+ * the translations it actually uses before players connect, see {@link LoadOptions#setProfile(UsageProfile)}:
+ * <pre>
+ * UsageProfile profile = UsageProfile.read(file);
+ * PropertyLocaleManager localeManager = new PropertyLocaleManager(parent, folder, new LoadOptions().setProfile(profile));
+ * localeManager.setUsageProfile(profile);
+ * profile.saveEvery(scheduler, file, 5, TimeUnit.MINUTES);
+ * profile.saveOnShutdown(file);
+ * </pre>
+ * Recording costs two map lookups and a counter increment per translation and leaves the translation paths
+ * as they are, so it can stay on in production next to any {@link TranslationMetrics}.
+ * Only the outermost manager of a chain records, translations of its parents are counted by it as well.
+ */
+public final class UsageProfile {
+
+    private static final String HEADER = "# translation usage: count, locale, key";
+
+    private final Map<Locale, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Reads a profile saved by {@link #save(File)}, or returns an empty one if the file does not exist.
+     * The counts of the previous runs are halved, so keys which fell out of use cool down over a few restarts.
+     */
+    public static UsageProfile read(File file) throws IOException {
+        UsageProfile profile = new UsageProfile();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                String[] columns = line.split("\t", 3);
+                if (columns.length < 3)
+                    throw new IOException("Invalid usage profile line in " + file + ": " + line);
+                long count;
+                try {
+                    count = Long.parseLong(columns[0]) / 2;
+                } catch (NumberFormatException cause) {
+                    throw new IOException("Invalid usage profile line in " + file + ": " + line, cause);
+                }
+                if (count > 0)
+                    profile.counter(Locale.forLanguageTag(columns[1]), columns[2]).add(count);
+            }
+        } catch (NoSuchFileException ignored) {
+            // first start, nothing recorded yet
+        }
+        return profile;
+    }
+
+    /**
+     * Counts a translation, called by the managers this profile is {@link LocaleManager#setUsageProfile set} on.
+     * Missing translations are not counted, there is nothing to warm.
+     */
+    void record(Locale locale, String translationKey) {
+        this.counter(locale, translationKey).increment();
+    }
+
+    public long getCount(Locale locale, String translationKey) {
+        Map<String, LongAdder> keys = this.counts.get(locale);
+        LongAdder count = keys != null ? keys.get(translationKey) : null;
+        return count != null ? count.sum() : 0;
+    }
+
+    public boolean isEmpty() {
+        for (Map<String, LongAdder> keys : this.counts.values()) {
+            if (!keys.isEmpty())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the most used keys of every locale which together make up the given share of all translations,
+     * e.g. {@code 0.99} leaves out the rarely used keys making up the last percent.
+     */
+    public Map<Locale, Set<String>> getHotKeys(double coverage) {
+        List<Usage> usages = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<Locale, Map<String, LongAdder>> locale : this.counts.entrySet()) {
+            for (Map.Entry<String, LongAdder> key : locale.getValue().entrySet()) {
+                long count = key.getValue().sum();
+                usages.add(new Usage(locale.getKey(), key.getKey(), count));
+                total += count;
+            }
+        }
+        usages.sort(Comparator.comparingLong((Usage usage) -> usage.count).reversed());
+
+        Map<Locale, Set<String>> hotKeys = new HashMap<>();
+        long covered = 0;
+        for (Usage usage : usages) {
+            if (covered >= total * coverage)
+                break;
+            hotKeys.computeIfAbsent(usage.locale, locale -> new HashSet<>()).add(usage.translationKey);
+            covered += usage.count;
+        }
+        return hotKeys;
+    }
+
+    /**
+     * Writes the counts to the file, replacing it at once so a crash while saving keeps the previous profile.
+     */
+    public void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File temporary = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<Locale, Map<String, LongAdder>> locale : this.counts.entrySet()) {
+                    String tag = locale.getKey().toLanguageTag();
+                    for (Map.Entry<String, LongAdder> key : locale.getValue().entrySet()) {
+                        // keys spanning lines can't be written, they are built at runtime rather than loaded anyway
+                        if (key.getKey().indexOf('\n') >= 0 || key.getKey().indexOf('\r') >= 0)
+                            continue;
+                        writer.write(key.getValue().sum() + "\t" + tag + "\t" + key.getKey());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+    }
+
+    /**
+     * Saves the profile periodically until the returned future is cancelled.
+     */
+    public ScheduledFuture<?> saveEvery(ScheduledExecutorService executor, File file, long period, TimeUnit unit) {
+        return executor.scheduleAtFixedRate(() -> this.trySave(file), period, period, unit);
+    }
+
+    /**
+     * Saves the profile when the JVM shuts down.
+     */
+    public void saveOnShutdown(File file) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> this.trySave(file), "translation-profile"));
+    }
+
+    private void trySave(File file) {
+        try {
+            this.save(file);
+        } catch (IOException | UncheckedIOException cause) {
+            System.err.println("Could not save translation usage profile to " + file + ": " + cause);
+        }
+    }
+
+    private LongAdder counter(Locale locale, String translationKey) {
+        Map<String, LongAdder> keys = this.counts.get(locale);
+        if (keys == null)
+            keys = this.counts.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        LongAdder count = keys.get(translationKey);
+        if (count == null)
+            count = keys.computeIfAbsent(translationKey, key -> new LongAdder());
+        return count;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Usage {
+
+        private final Locale locale;
+        private final String translationKey;
+        private final long count;
+    }
+}
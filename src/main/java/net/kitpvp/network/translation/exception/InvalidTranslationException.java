@@ -1,9 +1,19 @@
 package net.kitpvp.network.translation.exception;
 
+import lombok.Getter;
+import lombok.Setter;
+
 import java.util.concurrent.ExecutionException;
 
 public class InvalidTranslationException extends ExecutionException {
 
+    /**
+     * Like {@link MissingTranslationException#isStackTraces()}, the cause keeps its own stack trace.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean stackTraces = Boolean.parseBoolean(System.getProperty("net.kitpvp.translation.stackTraces", "true"));
+
     public InvalidTranslationException(String message) {
         super(message);
     }
@@ -11,4 +21,9 @@ public class InvalidTranslationException extends ExecutionException {
     public InvalidTranslationException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return stackTraces ? super.fillInStackTrace() : this;
+    }
 }
@@ -1,9 +1,20 @@
 package net.kitpvp.network.translation.exception;
 
+import lombok.Getter;
+import lombok.Setter;
+
 import java.util.concurrent.ExecutionException;
 
 public class MissingTranslationException extends ExecutionException {
 
+    /**
+     * Whether new exceptions record their stack trace. Disable it when translations are expected to fail often,
+     * defaults to the {@code net.kitpvp.translation.stackTraces} system property or {@code true}.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean stackTraces = Boolean.parseBoolean(System.getProperty("net.kitpvp.translation.stackTraces", "true"));
+
     public MissingTranslationException(String message) {
         super(message);
     }
@@ -11,4 +22,9 @@ public class MissingTranslationException extends ExecutionException {
     public MissingTranslationException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return stackTraces ? super.fillInStackTrace() : this;
+    }
 }
@@ -0,0 +1,185 @@
+package net.kitpvp.network.translation.format;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.text.*;
+
+/**
+ * Number format appending integers and decimals straight to a {@link StringBuilder}, without the boxing,
+ * {@link StringBuffer} and {@link FieldPosition} overhead of {@link DecimalFormat}. The symbols are taken once
+ * from the {@link DecimalFormatSymbols} of the wrapped format, whose output is reproduced exactly.
+ * Values needing rounding, exponents, currencies and formats other than {@link DecimalFormat}
+ * are formatted by the wrapped format.
+ * <p>
+ * Safe to use from any thread, the wrapped format is cloned per thread.
+ */
+final class NumberFormatter extends Format {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    // doubles up to this magnitude represent every integer exactly
+    private static final double EXACT_LIMIT = 9007199254740992d;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final ThreadLocalFormat format;
+    // whether values are formatted here, otherwise all of them go through the wrapped format
+    private final boolean exact;
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final int groupingSize;
+    private final int multiplier;
+    private final int minimumIntegerDigits;
+    private final int minimumFractionDigits;
+    private final int maximumFractionDigits;
+
+    NumberFormatter(NumberFormat prototype) {
+        this.format = new ThreadLocalFormat(prototype);
+        if (prototype instanceof DecimalFormat && isSupported((DecimalFormat) prototype)) {
+            DecimalFormat decimalFormat = (DecimalFormat) prototype;
+            DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+            this.exact = true;
+            this.positivePrefix = decimalFormat.getPositivePrefix();
+            this.positiveSuffix = decimalFormat.getPositiveSuffix();
+            this.negativePrefix = decimalFormat.getNegativePrefix();
+            this.negativeSuffix = decimalFormat.getNegativeSuffix();
+            this.zeroDigit = symbols.getZeroDigit();
+            this.groupingSeparator = symbols.getGroupingSeparator();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+            this.groupingSize = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+            this.multiplier = decimalFormat.getMultiplier();
+            this.minimumIntegerDigits = decimalFormat.getMinimumIntegerDigits();
+            this.minimumFractionDigits = decimalFormat.getMinimumFractionDigits();
+            this.maximumFractionDigits = decimalFormat.getMaximumFractionDigits();
+        } else {
+            this.exact = false;
+            this.positivePrefix = this.positiveSuffix = this.negativePrefix = this.negativeSuffix = null;
+            this.zeroDigit = this.groupingSeparator = this.decimalSeparator = 0;
+            this.groupingSize = this.multiplier = 0;
+            this.minimumIntegerDigits = this.minimumFractionDigits = this.maximumFractionDigits = 0;
+        }
+    }
+
+    private static boolean isSupported(DecimalFormat format) {
+        String pattern = format.toPattern();
+        // every digit of a long is kept and at least one integer digit is shown
+        return format.getMaximumIntegerDigits() >= POWERS_OF_TEN.length
+                && format.getMinimumIntegerDigits() >= 1
+                && format.getMinimumIntegerDigits() <= POWERS_OF_TEN.length
+                && format.getMaximumFractionDigits() < POWERS_OF_TEN.length
+                && !format.isDecimalSeparatorAlwaysShown()
+                // currency patterns may use the monetary separators
+                && pattern.indexOf('\u00A4') < 0
+                && pattern.indexOf('E') < 0;
+    }
+
+    void format(long value, StringBuilder appendTo) {
+        if (!this.exact) {
+            appendTo.append(((NumberFormat) this.format.get()).format(value));
+            return;
+        }
+        long number;
+        try {
+            number = Math.multiplyExact(value, (long) this.multiplier);
+        } catch (ArithmeticException overflow) {
+            appendTo.append(((NumberFormat) this.format.get()).format(value));
+            return;
+        }
+
+        boolean negative = number < 0;
+        appendTo.append(negative ? this.negativePrefix : this.positivePrefix);
+        // work with the negative value, Long.MIN_VALUE has no positive counterpart
+        this.appendInteger(negative ? number : -number, appendTo);
+        if (this.minimumFractionDigits > 0) {
+            appendTo.append(this.decimalSeparator);
+            for (int i = 0; i < this.minimumFractionDigits; i++) {
+                appendTo.append(this.zeroDigit);
+            }
+        }
+        appendTo.append(negative ? this.negativeSuffix : this.positiveSuffix);
+    }
+
+    void format(double value, StringBuilder appendTo) {
+        double number = this.multiplier == 1 ? value : value * this.multiplier;
+        double scaled = number * POWERS_OF_TEN[this.maximumFractionDigits];
+        // values with more fraction digits need rounding, which is left to the wrapped format, as is -0
+        if (!this.exact || scaled != Math.rint(scaled) || Math.abs(scaled) >= EXACT_LIMIT
+                || (number == 0 && Double.doubleToRawLongBits(number) != 0)) {
+            // NumberFormat.format(double) takes a fast path of DecimalFormat which rounds differently
+            appendTo.append(this.format.format(value));
+            return;
+        }
+
+        long units = (long) scaled;
+        long unit = POWERS_OF_TEN[this.maximumFractionDigits];
+        boolean negative = units < 0;
+        long fraction = Math.abs(units % unit);
+        int fractionDigits = this.maximumFractionDigits;
+        while (fractionDigits > this.minimumFractionDigits && fraction % 10 == 0) {
+            fraction /= 10;
+            fractionDigits--;
+        }
+
+        appendTo.append(negative ? this.negativePrefix : this.positivePrefix);
+        this.appendInteger(-Math.abs(units / unit), appendTo);
+        if (fractionDigits > 0) {
+            appendTo.append(this.decimalSeparator);
+            for (int position = fractionDigits - 1; position >= 0; position--) {
+                appendTo.append((char) (this.zeroDigit + fraction / POWERS_OF_TEN[position] % 10));
+            }
+        }
+        appendTo.append(negative ? this.negativeSuffix : this.positiveSuffix);
+    }
+
+    /**
+     * Appends the digits of the negated magnitude with grouping separators.
+     */
+    private void appendInteger(long magnitude, StringBuilder appendTo) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && magnitude <= -POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        for (int position = Math.max(digits, this.minimumIntegerDigits) - 1; position >= 0; position--) {
+            int digit = position < digits ? (int) -(magnitude / POWERS_OF_TEN[position] % 10) : 0;
+            appendTo.append((char) (this.zeroDigit + digit));
+            if (this.groupingSize > 0 && position > 0 && position % this.groupingSize == 0)
+                appendTo.append(this.groupingSeparator);
+        }
+    }
+
+    void format(Object value, StringBuilder appendTo) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            this.format(((Number) value).longValue(), appendTo);
+        } else if (value instanceof Double) {
+            this.format(((Double) value).doubleValue(), appendTo);
+        } else {
+            appendTo.append(this.format.format(value));
+        }
+    }
+
+    @Override
+    public StringBuffer format(Object obj, @NotNull StringBuffer toAppendTo, @NotNull FieldPosition pos) {
+        return this.format.format(obj, toAppendTo, pos);
+    }
+
+    @Override
+    public Object parseObject(String source, @NotNull ParsePosition pos) {
+        return this.format.parseObject(source, pos);
+    }
+
+    @Override
+    public String toString() {
+        return "NumberFormatter{" +
+                "format=" + format +
+                '}';
+    }
+}
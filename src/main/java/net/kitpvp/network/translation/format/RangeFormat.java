@@ -4,10 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Array;
 import java.text.*;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  *
@@ -17,9 +23,25 @@ import java.util.regex.Pattern;
  *
  * 1..n 1..n 1..n
  *
+ * Ranges may be capped to a number of elements and characters, elements past the cap are not formatted
+ * and replaced by an overflow text, in which # stands for the number of remaining elements and ## for #:
+ *
+ * {0;, ;n;10:256; and # more}
+ *
+ * Arrays, primitive arrays, {@link Iterable}s and streams are formatted without copying them, except for streams.
+ * Lists with random access are read by index, other iterables are iterated up to the last selected element.
+ * Ranges may be given an output limit when formatting, they stop appending elements once their output reaches it
+ * and append their overflow text or, without one, {@link #TRUNCATED} after the separator. There is no limit by
+ * default.
+ *
  */
 public class RangeFormat extends Format {
 
+    /**
+     * Marks ranges cut by the output limit which have no overflow text.
+     */
+    public static final String TRUNCATED = "\u2026";
+
     private final Locale locale;
 
     public RangeFormat(Locale locale, String pattern) {
@@ -28,57 +50,115 @@ public class RangeFormat extends Format {
     }
 
     private String pattern;
-    private Format[] formats = new Format[2];
     private AbstractRange[] ranges = new AbstractRange[INITIAL_FORMATS];
     private int[] offsets = new int[INITIAL_FORMATS];
     private int maxOffset;
 
     private static final int INITIAL_FORMATS = 2;
-    private static final int FORMAT_NUMBER = 0;
-    private static final int FORMAT_DATE   = 1;
 
     private static final int SEG_RAW = 0;
     private static final int SEG_START = 1;
     private static final int SEG_SEPARATOR = 2;
     private static final int SEG_END = 3;
+    private static final int SEG_LIMIT = 4;
+    private static final int SEG_OVERFLOW = 5;
 
     private static final Pattern PATTERN_START_INDEX = Pattern.compile("[0-9]+");
     private static final Pattern PATTERN_END_INDEX = Pattern.compile("(n)|(n-[0-9]+)|([0-9]+)");
     private static final Pattern PATTERN_ONLY_INDEX = PATTERN_END_INDEX;
+    private static final Pattern PATTERN_LIMIT = Pattern.compile("([0-9]*)(?::([0-9]+))?");
 
     private static final Object[] EMPTY = new Object[0];
 
     @Override
     public StringBuffer format(Object obj, @NotNull StringBuffer toAppendTo, @NotNull FieldPosition pos) {
-        if(obj instanceof Object[]) {
-            return this.subformat((Object[]) obj, toAppendTo);
-        } else if(obj instanceof Collection) {
-            Collection<?> collection = (Collection<?>) obj;
-            return this.subformat(collection.toArray(new Object[0]), toAppendTo);
-        } else {
-            return this.subformat(EMPTY, toAppendTo);
-        }
+        return toAppendTo.append(this.format(obj, new StringBuilder()));
     }
 
-    private StringBuffer subformat(Object[] arguments, StringBuffer appendTo) {
+    public StringBuilder format(Object obj, @NotNull StringBuilder toAppendTo) {
+        return this.format(obj, toAppendTo, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Formats the ranges, which stop appending elements once the output reaches the given number of characters.
+     */
+    public StringBuilder format(Object obj, @NotNull StringBuilder toAppendTo, int outputLimit) {
+        return this.subformat(elements(obj), toAppendTo, outputLimit);
+    }
+
+    private StringBuilder subformat(Elements elements, StringBuilder appendTo, int outputLimit) {
+        elements.outputEnd = (int) Math.min(Integer.MAX_VALUE, (long) appendTo.length() + outputLimit);
         int lastOffset = 0;
         for (int i = 0; i <= maxOffset; ++i) {
             appendTo.append(pattern, lastOffset, offsets[i]);
             lastOffset = offsets[i];
-            ranges[i].format(appendTo, arguments);
+            ranges[i].format(appendTo, elements);
         }
         appendTo.append(pattern, lastOffset, pattern.length());
         return appendTo;
     }
 
+    private static Elements elements(Object obj) {
+        if(obj instanceof Object[]) {
+            return new ArrayElements((Object[]) obj);
+        } else if(obj instanceof List && obj instanceof RandomAccess) {
+            return new ListElements((List<?>) obj);
+        } else if(obj instanceof Iterable) {
+            return new IterableElements((Iterable<?>) obj);
+        } else if(obj instanceof int[]) {
+            return new IntArrayElements((int[]) obj);
+        } else if(obj instanceof long[]) {
+            return new LongArrayElements((long[]) obj);
+        } else if(obj instanceof double[]) {
+            return new DoubleArrayElements((double[]) obj);
+        } else if(obj != null && obj.getClass().isArray()) {
+            return new PrimitiveArrayElements(obj);
+        } else if(obj instanceof BaseStream) {
+            // a stream can only be consumed once, but ranges may read it multiple times
+            return elements(collect(obj));
+        } else {
+            return new ArrayElements(EMPTY);
+        }
+    }
+
+    /**
+     * Collects the stream arguments into arrays, so a stream referenced by several placeholders or formatted
+     * for several locales is only consumed once. Returns the given arguments if there are no streams.
+     */
+    public static Object[] collectStreams(Object[] args) {
+        Object[] collected = args;
+        for(int i = 0; i < args.length; i++) {
+            if(args[i] instanceof BaseStream) {
+                if(collected == args)
+                    collected = args.clone();
+                collected[i] = collect(args[i]);
+            }
+        }
+        return collected;
+    }
+
+    static Object collect(Object obj) {
+        if(obj instanceof Stream)
+            return ((Stream<?>) obj).toArray();
+        if(obj instanceof IntStream)
+            return ((IntStream) obj).toArray();
+        if(obj instanceof LongStream)
+            return ((LongStream) obj).toArray();
+        if(obj instanceof DoubleStream)
+            return ((DoubleStream) obj).toArray();
+        return obj;
+    }
+
     @Override
     public Object parseObject(String source, @NotNull ParsePosition pos) {
         return null;
     }
 
     private void applyPattern(String pattern) {
-        StringBuilder[] segments = new StringBuilder[4];
+        StringBuilder[] segments = new StringBuilder[6];
         segments[SEG_RAW] = new StringBuilder();
+        // positions of the remaining count in the overflow text
+        List<Integer> countPositions = new ArrayList<>();
 
         int part = SEG_RAW;
         int formatNumber = 0;
@@ -108,7 +188,7 @@ public class RangeFormat extends Format {
                 } else {
                     switch (ch) {
                         case ';':
-                            if(part < SEG_END) {
+                            if(part < SEG_OVERFLOW) {
                                 if(segments[++part] == null) {
                                     segments[part] = new StringBuilder();
                                 }
@@ -121,13 +201,29 @@ public class RangeFormat extends Format {
                             break;
                         case '}':
                             part = SEG_RAW;
-                            makeFormat(formatNumber, segments);
+                            makeFormat(formatNumber, segments, countPositions);
                             formatNumber++;
                             // throw away other segments
+                            countPositions.clear();
+                            segments[SEG_OVERFLOW] = null;
+                            segments[SEG_LIMIT] = null;
                             segments[SEG_END] = null;
                             segments[SEG_SEPARATOR] = null;
                             segments[SEG_START] = null;
                             break;
+                        case '#':
+                            if(part == SEG_OVERFLOW) {
+                                // ## is a literal #
+                                if(i + 1 < pattern.length() && pattern.charAt(i + 1) == '#') {
+                                    segments[part].append(ch);
+                                    i++;
+                                } else {
+                                    countPositions.add(segments[part].length());
+                                }
+                                break;
+                            }
+                            segments[part].append(ch);
+                            break;
                         default:
                             segments[part].append(ch);
                             break;
@@ -143,7 +239,8 @@ public class RangeFormat extends Format {
     }
 
     private void makeFormat(int offsetNumber,
-                            StringBuilder[] textSegments)
+                            StringBuilder[] textSegments,
+                            List<Integer> countPositions)
     {
         String[] segments = new String[textSegments.length];
         for (int i = 0; i < textSegments.length; i++) {
@@ -152,8 +249,8 @@ public class RangeFormat extends Format {
         }
 
         // resize format information arrays if necessary
-        if (offsetNumber >= formats.length) {
-            int newLength = formats.length * 2;
+        if (offsetNumber >= ranges.length) {
+            int newLength = ranges.length * 2;
             AbstractRange[] newFormats = new AbstractRange[newLength];
             int[] newOffsets = new int[newLength];
             System.arraycopy(ranges, 0, newFormats, 0, maxOffset + 1);
@@ -168,6 +265,11 @@ public class RangeFormat extends Format {
         // now get the format
         AbstractRange format;
         if(segments[SEG_END].isEmpty() && segments[SEG_SEPARATOR].isEmpty()) {
+            if(!segments[SEG_LIMIT].isEmpty() || !segments[SEG_OVERFLOW].isEmpty()) {
+                maxOffset = oldMaxOffset;
+                throw new IllegalArgumentException("limit of a single element: "
+                        + segments[SEG_START]);
+            }
             Matcher matcher = PATTERN_ONLY_INDEX.matcher(segments[SEG_START]);
             if(!matcher.matches()) {
                 maxOffset = oldMaxOffset;
@@ -207,6 +309,14 @@ public class RangeFormat extends Format {
                         + segments[SEG_START]);
             }
 
+            Limit limit;
+            try {
+                limit = this.makeLimit(segments[SEG_LIMIT], segments[SEG_OVERFLOW], countPositions);
+            } catch (IllegalArgumentException cause) {
+                maxOffset = oldMaxOffset;
+                throw cause;
+            }
+
             Matcher matcher = PATTERN_END_INDEX.matcher(segments[SEG_END]);
             if(!matcher.matches()) {
                 maxOffset = oldMaxOffset;
@@ -217,14 +327,14 @@ public class RangeFormat extends Format {
             int endIndex;
             try {
                 endIndex = Integer.parseInt(segments[SEG_END]);
-                format = new FixedRange(startIndex, endIndex, segments[SEG_SEPARATOR]);
+                format = new FixedRange(startIndex, endIndex, segments[SEG_SEPARATOR], limit);
             } catch (Exception ignored) {
                 if(segments[SEG_END].length() == 1) {
-                    format = new LengthLimitedRange(startIndex, 0, segments[SEG_SEPARATOR]);
+                    format = new LengthLimitedRange(startIndex, 0, segments[SEG_SEPARATOR], limit);
                 } else {
                     try {
                         int endOffset = Integer.parseInt(segments[SEG_END].substring(2));
-                        format = new LengthLimitedRange(startIndex, endOffset, segments[SEG_SEPARATOR]);
+                        format = new LengthLimitedRange(startIndex, endOffset, segments[SEG_SEPARATOR], limit);
                     } catch (Exception cause) {
                         maxOffset = oldMaxOffset;
                         throw new IllegalArgumentException("illegal end offset: "
@@ -237,26 +347,43 @@ public class RangeFormat extends Format {
         ranges[offsetNumber] = format;
     }
 
+    private Limit makeLimit(String limit, String overflow, List<Integer> countPositions) {
+        String[] overflowParts = new String[countPositions.size() + 1];
+        int lastPosition = 0;
+        for (int i = 0; i < countPositions.size(); i++) {
+            overflowParts[i] = overflow.substring(lastPosition, countPositions.get(i));
+            lastPosition = countPositions.get(i);
+        }
+        overflowParts[countPositions.size()] = overflow.substring(lastPosition);
+        if(limit.isEmpty())
+            return new Limit(Integer.MAX_VALUE, Integer.MAX_VALUE, overflowParts);
+
+        Matcher matcher = PATTERN_LIMIT.matcher(limit);
+        if(!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2) == null))
+            throw new IllegalArgumentException("illegal limit: " + limit);
+        try {
+            int maxElements = matcher.group(1).isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(matcher.group(1));
+            int maxChars = matcher.group(2) == null ? Integer.MAX_VALUE : Integer.parseInt(matcher.group(2));
+            if(maxElements == 0 || maxChars == 0)
+                throw new IllegalArgumentException("illegal limit: " + limit);
+            return new Limit(maxElements, maxChars, overflowParts);
+        } catch (NumberFormatException cause) {
+            throw new IllegalArgumentException("illegal limit: " + limit);
+        }
+    }
+
     @RequiredArgsConstructor
     private class FixedRange extends AbstractRange {
 
         private final int start, end;
         private final String separator;
+        private final Limit limit;
 
         @Override
-        protected void format(@NotNull StringBuffer appendTo, Object[] array) {
-            this.checkIndex(array, this.start);
-            this.checkIndex(array, this.end);
-
-            boolean appended = false;
-            for(int i = start; i <= end; ++i) {
-                Object elem = array[start];
-                if(appended) {
-                    appendTo.append(this.separator);
-                }
-                this.format(appendTo, elem);
-                appended = true;
-            }
+        protected void format(@NotNull StringBuilder appendTo, Elements elements) {
+            this.checkIndex(elements, this.start);
+            this.checkIndex(elements, this.end);
+            this.formatRange(appendTo, elements, this.start, this.end, this.separator, this.limit);
         }
     }
 
@@ -267,14 +394,11 @@ public class RangeFormat extends Format {
         private final boolean reverse;
 
         @Override
-        protected void format(@NotNull StringBuffer appendTo, Object[] array) {
-            if(this.reverse) {
-                this.checkIndex(array, array.length - this.element - 1);
-                this.format(appendTo, array[array.length - this.element - 1]);
-            } else {
-                this.checkIndex(array, this.element);
-                this.format(appendTo, array[this.element]);
-            }
+        protected void format(@NotNull StringBuilder appendTo, Elements elements) {
+            int index = this.reverse ? elements.size() - this.element - 1 : this.element;
+            this.checkIndex(elements, index);
+            elements.seek(index);
+            elements.appendNext(RangeFormat.this, appendTo);
         }
     }
 
@@ -283,56 +407,268 @@ public class RangeFormat extends Format {
 
         private final int start, endOffset;
         private final String separator;
+        private final Limit limit;
 
         @Override
-        protected void format(@NotNull StringBuffer appendTo, Object[] array) {
-            this.checkIndex(array, this.start);
-            this.checkIndex(array, array.length - this.endOffset - 1);
-
-            boolean appended = false;
-            for(int i = start; i <= array.length - endOffset - 1; ++i) {
-                Object elem = array[i];
-                if(appended) {
-                    appendTo.append(this.separator);
-                }
-                this.format(appendTo, elem);
-                appended = true;
-            }
+        protected void format(@NotNull StringBuilder appendTo, Elements elements) {
+            int end = elements.size() - this.endOffset - 1;
+            this.checkIndex(elements, this.start);
+            this.checkIndex(elements, end);
+            this.formatRange(appendTo, elements, this.start, end, this.separator, this.limit);
         }
     }
 
     private abstract class AbstractRange {
 
-        protected abstract void format(@NotNull StringBuffer appendTo, Object[] array);
+        protected abstract void format(@NotNull StringBuilder appendTo, Elements elements);
 
-        protected void checkIndex(@NotNull Object[] array, int index) {
-            if(index < 0 || index >= array.length)
-                throw new IndexOutOfBoundsException("Index out of range: " + index + " in " + Arrays.toString(array));
+        protected void checkIndex(@NotNull Elements elements, int index) {
+            if(index < 0 || index >= elements.size())
+                throw new IndexOutOfBoundsException("Index out of range: " + index + " of " + elements.size() + " elements");
         }
 
-        protected void format(@NotNull StringBuffer appendTo, @Nullable Object obj) {
-            if(obj == null) {
-                appendTo.append("null");
-            } else if(obj instanceof String) {
-                appendTo.append((String) obj);
-            } else if(obj instanceof Number) {
-                if(formats[FORMAT_NUMBER] == null) {
-                    formats[FORMAT_NUMBER] = NumberFormat.getInstance(locale);
+        protected void formatRange(@NotNull StringBuilder appendTo, Elements elements, int start, int end,
+                                   String separator, Limit limit) {
+            elements.seek(start);
+            int count = end - start + 1;
+            int charEnd = (int) Math.min(Integer.MAX_VALUE, (long) appendTo.length() + limit.maxChars);
+            int appended = 0;
+            boolean truncated = false;
+            while(appended < count && appended < limit.maxElements) {
+                int length = appendTo.length();
+                if(appended > 0) {
+                    if(length >= elements.outputEnd) {
+                        truncated = true;
+                        break;
+                    }
+                    if(length >= charEnd)
+                        break;
+                    appendTo.append(separator);
                 }
-                appendTo.append(formats[FORMAT_NUMBER].format(obj));
-            } else if(obj instanceof Date) {
-                if(formats[FORMAT_DATE] == null) {
-                    formats[FORMAT_DATE] = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+                elements.appendNext(RangeFormat.this, appendTo);
+                if(appendTo.length() > charEnd) {
+                    // the element and its separator do not fit anymore
+                    appendTo.setLength(length);
+                    break;
                 }
-                appendTo.append(formats[FORMAT_DATE].format(obj));
+                appended++;
+            }
+            if(appended < count) {
+                if(truncated && !limit.hasOverflow())
+                    appendTo.append(separator).append(TRUNCATED);
+                else
+                    limit.appendOverflow(appendTo, count - appended);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class Limit {
+
+        private final int maxElements, maxChars;
+        // overflow text, split at the remaining count
+        private final String[] overflow;
+
+        boolean hasOverflow() {
+            return this.overflow.length > 1 || !this.overflow[0].isEmpty();
+        }
+
+        void appendOverflow(@NotNull StringBuilder appendTo, int remaining) {
+            appendTo.append(this.overflow[0]);
+            for(int i = 1; i < this.overflow.length; i++) {
+                SharedFormats.number(locale).format((long) remaining, appendTo);
+                appendTo.append(this.overflow[i]);
+            }
+        }
+    }
+
+    private void formatElement(@NotNull StringBuilder appendTo, @Nullable Object obj) {
+        if(obj == null) {
+            appendTo.append("null");
+        } else if(obj instanceof String) {
+            appendTo.append((String) obj);
+        } else if(obj instanceof Number) {
+            SharedFormats.number(locale).format(obj, appendTo);
+        } else if(obj instanceof Date) {
+            SharedFormats.dateTime(locale).format(obj, appendTo);
+        } else {
+            String str = obj.toString();
+            if(str == null) {
+                appendTo.append("null");
             } else {
-                String str = obj.toString();
-                if(str == null) {
-                    appendTo.append("null");
-                } else {
-                    appendTo.append(str);
+                appendTo.append(str);
+            }
+        }
+    }
+
+    /**
+     * Read cursor over the elements of one formatted argument.
+     */
+    private abstract static class Elements {
+
+        // length of the output after which ranges stop appending elements
+        int outputEnd;
+
+        abstract int size();
+
+        /**
+         * Moves the cursor before the element at the given index.
+         */
+        abstract void seek(int index);
+
+        /**
+         * Appends the element after the cursor and moves the cursor past it.
+         */
+        abstract void appendNext(RangeFormat format, StringBuilder appendTo);
+    }
+
+    private abstract static class IndexedElements extends Elements {
+
+        int position;
+
+        @Override
+        void seek(int index) {
+            this.position = index;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ArrayElements extends IndexedElements {
+
+        private final Object[] array;
+
+        @Override
+        int size() {
+            return this.array.length;
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            format.formatElement(appendTo, this.array[this.position++]);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ListElements extends IndexedElements {
+
+        private final List<?> list;
+
+        @Override
+        int size() {
+            return this.list.size();
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            format.formatElement(appendTo, this.list.get(this.position++));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class IntArrayElements extends IndexedElements {
+
+        private final int[] array;
+
+        @Override
+        int size() {
+            return this.array.length;
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            SharedFormats.number(format.locale).format((long) this.array[this.position++], appendTo);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class LongArrayElements extends IndexedElements {
+
+        private final long[] array;
+
+        @Override
+        int size() {
+            return this.array.length;
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            SharedFormats.number(format.locale).format(this.array[this.position++], appendTo);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class DoubleArrayElements extends IndexedElements {
+
+        private final double[] array;
+
+        @Override
+        int size() {
+            return this.array.length;
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            SharedFormats.number(format.locale).format(this.array[this.position++], appendTo);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class PrimitiveArrayElements extends IndexedElements {
+
+        private final Object array;
+
+        @Override
+        int size() {
+            return Array.getLength(this.array);
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            format.formatElement(appendTo, Array.get(this.array, this.position++));
+        }
+    }
+
+    private static final class IterableElements extends Elements {
+
+        private final Iterable<?> iterable;
+        private int size = -1;
+        private Iterator<?> iterator;
+        private int position;
+
+        IterableElements(Iterable<?> iterable) {
+            this.iterable = iterable;
+            if(iterable instanceof Collection)
+                this.size = ((Collection<?>) iterable).size();
+        }
+
+        @Override
+        int size() {
+            if(this.size < 0) {
+                int size = 0;
+                for(Iterator<?> iterator = this.iterable.iterator(); iterator.hasNext(); iterator.next()) {
+                    size++;
                 }
+                this.size = size;
+            }
+            return this.size;
+        }
+
+        @Override
+        void seek(int index) {
+            // ranges usually follow each other, so the iterator is only restarted to go back
+            if(this.iterator == null || index < this.position) {
+                this.iterator = this.iterable.iterator();
+                this.position = 0;
             }
+            for(; this.position < index; this.position++) {
+                this.iterator.next();
+            }
+        }
+
+        @Override
+        void appendNext(RangeFormat format, StringBuilder appendTo) {
+            this.position++;
+            format.formatElement(appendTo, this.iterator.next());
         }
     }
 }
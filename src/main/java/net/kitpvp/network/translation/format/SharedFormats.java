@@ -0,0 +1,52 @@
+package net.kitpvp.network.translation.format;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.text.Format;
+import java.text.NumberFormat;
+import java.time.format.FormatStyle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Formats shared by all translations: the per-locale defaults used for arguments without an explicit format type,
+ * and one format per locale, type and modifier for the explicit ones.
+ * All returned formats are safe to use from any thread.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class SharedFormats {
+
+    private static final Map<Locale, NumberFormatter> NUMBER_FORMATS = new ConcurrentHashMap<>();
+    private static final Map<Locale, TemporalFormatter> DATE_TIME_FORMATS = new ConcurrentHashMap<>();
+    private static final Map<FormatKey, Format> FORMATS = new ConcurrentHashMap<>();
+
+    static NumberFormatter number(Locale locale) {
+        return NUMBER_FORMATS.computeIfAbsent(locale,
+                key -> new NumberFormatter(NumberFormat.getInstance(key)));
+    }
+
+    static Format get(Locale locale, int type, String modifier, Supplier<Format> factory) {
+        return FORMATS.computeIfAbsent(new FormatKey(locale, type, modifier), key -> factory.get());
+    }
+
+    static TemporalFormatter dateTime(Locale locale) {
+        return DATE_TIME_FORMATS.computeIfAbsent(locale,
+                key -> TemporalFormatter.ofStyle(FormatStyle.SHORT, FormatStyle.SHORT, key));
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static final class FormatKey {
+
+        private final Locale locale;
+        private final int type;
+        private final String modifier;
+    }
+}
@@ -0,0 +1,207 @@
+package net.kitpvp.network.translation.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.Format;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.chrono.Chronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DecimalStyle;
+import java.time.format.FormatStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Date and time format backed by an immutable {@link DateTimeFormatter}, safe to use from any thread.
+ * Formats {@link Date}s, {@link Instant}s and numbers as epoch milliseconds like {@link java.text.DateFormat} does,
+ * in the default time zone and the calendar of the locale. Other {@link TemporalAccessor}s keep their own zone.
+ * <p>
+ * Patterns and styles {@link DateTimeFormatter} would format differently are formatted by a per-thread
+ * {@link DateFormat}, which accepts temporals only if they denote an instant. These are locales whose calendar
+ * is not Gregorian or whose digits are not ASCII, like th_TH, ja_JP_JP or ar_EG, and full time styles, which
+ * name the zone differently.
+ */
+final class TemporalFormatter extends Format {
+
+    private final DateTimeFormatter formatter;
+    private final ThreadLocalFormat fallback;
+    // zone of dates and instants, taken when created like DateFormat does
+    private final ZoneId zone;
+
+    private TemporalFormatter(DateTimeFormatter formatter, Locale locale) {
+        this.formatter = formatter.withLocale(locale).withChronology(Chronology.ofLocale(locale));
+        this.fallback = null;
+        this.zone = ZoneId.systemDefault();
+    }
+
+    private TemporalFormatter(DateFormat fallback) {
+        this.formatter = null;
+        this.fallback = new ThreadLocalFormat(fallback);
+        this.zone = null;
+    }
+
+    static TemporalFormatter ofStyle(@Nullable FormatStyle dateStyle, @Nullable FormatStyle timeStyle, Locale locale) {
+        if (!isCompatible(locale) || timeStyle == FormatStyle.FULL) {
+            // the styles of both are declared in the same order
+            DateFormat dateFormat;
+            if (timeStyle == null) {
+                dateFormat = DateFormat.getDateInstance(dateStyle.ordinal(), locale);
+            } else if (dateStyle == null) {
+                dateFormat = DateFormat.getTimeInstance(timeStyle.ordinal(), locale);
+            } else {
+                dateFormat = DateFormat.getDateTimeInstance(dateStyle.ordinal(), timeStyle.ordinal(), locale);
+            }
+            return new TemporalFormatter(dateFormat);
+        }
+        DateTimeFormatter formatter;
+        if (timeStyle == null) {
+            formatter = DateTimeFormatter.ofLocalizedDate(dateStyle);
+        } else if (dateStyle == null) {
+            formatter = DateTimeFormatter.ofLocalizedTime(timeStyle);
+        } else {
+            formatter = DateTimeFormatter.ofLocalizedDateTime(dateStyle, timeStyle);
+        }
+        return new TemporalFormatter(formatter, locale);
+    }
+
+    /**
+     * Creates a formatter for a {@link SimpleDateFormat} pattern.
+     *
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    static TemporalFormatter ofPattern(String pattern, Locale locale) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(pattern, locale);
+        if (!isCompatible(locale) || !isCompatible(pattern))
+            return new TemporalFormatter(dateFormat);
+        return new TemporalFormatter(DateTimeFormatter.ofPattern(pattern), locale);
+    }
+
+    /**
+     * Checks whether both formats use the same calendar and digits for the locale.
+     */
+    private static boolean isCompatible(Locale locale) {
+        // the buddhist calendar extends GregorianCalendar
+        return Calendar.getInstance(locale).getCalendarType().equals("gregory")
+                && DecimalStyle.of(locale).getZeroDigit() == DecimalStyle.STANDARD.getZeroDigit();
+    }
+
+    /**
+     * Checks whether every letter of the pattern has the same meaning in both formats.
+     */
+    private static boolean isCompatible(String pattern) {
+        boolean inQuote = false;
+        for (int i = 0; i < pattern.length(); ) {
+            char c = pattern.charAt(i);
+            int count = 1;
+            while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            i += count;
+            if (c == '\'') {
+                // '' is a quote in both formats, a single one toggles quoting
+                if (count % 2 == 1)
+                    inQuote = !inQuote;
+                continue;
+            }
+            if (inQuote)
+                continue;
+
+            int maximum;
+            switch (c) {
+                case 'y':
+                    maximum = Integer.MAX_VALUE;
+                    break;
+                case 'E':
+                    maximum = 4;
+                    break;
+                case 'M':
+                    // month names are abbreviated differently
+                    maximum = 2;
+                    break;
+                case 'd':
+                case 'H':
+                case 'h':
+                case 'k':
+                case 'K':
+                case 'm':
+                case 's':
+                    maximum = 2;
+                    break;
+                case 'a':
+                    maximum = 1;
+                    break;
+                case '[':
+                case ']':
+                case '{':
+                case '}':
+                case '#':
+                    // reserved by DateTimeFormatter, literals in SimpleDateFormat
+                    return false;
+                default:
+                    maximum = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ? 0 : Integer.MAX_VALUE;
+                    break;
+            }
+            if (count > maximum)
+                return false;
+        }
+        return !inQuote;
+    }
+
+    void format(Object obj, StringBuilder appendTo) {
+        if (this.formatter == null) {
+            appendTo.append(this.fallback.format(toDate(obj)));
+            return;
+        }
+        this.formatter.formatTo(this.toTemporal(obj), appendTo);
+    }
+
+    @Override
+    public StringBuffer format(Object obj, @NotNull StringBuffer toAppendTo, @NotNull FieldPosition pos) {
+        if (this.formatter == null)
+            return this.fallback.format(toDate(obj), toAppendTo, pos);
+        this.formatter.formatTo(this.toTemporal(obj), toAppendTo);
+        return toAppendTo;
+    }
+
+    @Override
+    public Object parseObject(String source, @NotNull ParsePosition pos) {
+        if (this.formatter == null)
+            return this.fallback.parseObject(source, pos);
+        return this.formatter.toFormat().parseObject(source, pos);
+    }
+
+    private static Object toDate(Object obj) {
+        if (obj instanceof TemporalAccessor && ((TemporalAccessor) obj).isSupported(ChronoField.INSTANT_SECONDS))
+            return Date.from(Instant.from((TemporalAccessor) obj));
+        return obj;
+    }
+
+    private TemporalAccessor toTemporal(Object obj) {
+        if (obj instanceof Instant)
+            return ((Instant) obj).atZone(this.zone);
+        if (obj instanceof TemporalAccessor)
+            return (TemporalAccessor) obj;
+        // java.sql.Date does not support toInstant()
+        if (obj instanceof Date)
+            return Instant.ofEpochMilli(((Date) obj).getTime()).atZone(this.zone);
+        if (obj instanceof Number)
+            return Instant.ofEpochMilli(((Number) obj).longValue()).atZone(this.zone);
+        throw new IllegalArgumentException("Cannot format given Object as a Date");
+    }
+
+    @Override
+    public String toString() {
+        return "TemporalFormatter{" +
+                "formatter=" + (formatter != null ? formatter : fallback) +
+                '}';
+    }
+}
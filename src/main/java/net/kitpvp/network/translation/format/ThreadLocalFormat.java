@@ -0,0 +1,46 @@
+package net.kitpvp.network.translation.format;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.text.FieldPosition;
+import java.text.Format;
+import java.text.ParsePosition;
+
+/**
+ * Wraps a mutable {@link Format} and hands every thread its own clone of it,
+ * so a single compiled translation can be formatted concurrently without locking.
+ */
+final class ThreadLocalFormat extends Format {
+
+    private final Format prototype;
+    private final ThreadLocal<Format> local;
+
+    ThreadLocalFormat(Format prototype) {
+        this.prototype = prototype;
+        this.local = ThreadLocal.withInitial(() -> (Format) prototype.clone());
+    }
+
+    /**
+     * Returns the clone of the calling thread.
+     */
+    Format get() {
+        return this.local.get();
+    }
+
+    @Override
+    public StringBuffer format(Object obj, @NotNull StringBuffer toAppendTo, @NotNull FieldPosition pos) {
+        return this.local.get().format(obj, toAppendTo, pos);
+    }
+
+    @Override
+    public Object parseObject(String source, @NotNull ParsePosition pos) {
+        return this.local.get().parseObject(source, pos);
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadLocalFormat{" +
+                "prototype=" + prototype +
+                '}';
+    }
+}
@@ -0,0 +1,383 @@
+package net.kitpvp.network.translation.format;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.Format;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Binary bundle of precompiled translations, read through a memory mapping of the file. A bundle stores every
+ * translation as its literal text and placeholder descriptors, so opening it skips parsing the index, the
+ * locale files and the patterns. The data stays in the mapping, shared through the page cache by every process
+ * opening the bundle, and a translation is only decoded to the heap when it is first looked up.
+ * <p>
+ * Keys are found through a hash index stored in the bundle. Every key owns a row referencing its translation
+ * for each locale, keys missing in a locale reference the translation of the fallback locale, resolved when the
+ * bundle is written. Keys, literal text and modifiers are stored once in a string table shared by all locales.
+ * <p>
+ * Layout, all numbers are big endian ints and positions are absolute:
+ * <pre>
+ * magic, version, file length, locale count, key count, entry count, index capacity, string count
+ * locales:         (language tag, entry count)*
+ * index:           (row + 1, or 0 for an empty slot)*, by the spread hash code of the key
+ * rows:            (hash code, key, (entry + 1, -(entry + 1) for a fallback or 0 for none)*)*, a cell per locale
+ * entry positions: position*
+ * string positions: position*
+ * entries:         (locale, pattern, placeholder count, (offset, argument number, type, modifier)*)*
+ * strings:         (byte length, UTF-8 bytes)*
+ * </pre>
+ * Strings are referenced by their index in the string table, a modifier of {@code -1} stands for none.
+ */
+public final class TranslationBundle {
+
+    private static final int MAGIC = 0x4B545042;
+    private static final int VERSION = 2;
+    private static final int HEADER = 8 * 4;
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final Locale[] locales;
+    private final int[] sizes;
+    private final int keys;
+    private final int mask;
+    private final int index;
+    private final int rows;
+    private final int rowLength;
+    private final int entries;
+    private final int strings;
+    private final int stringCount;
+    private final AtomicReferenceArray<TranslationFormat> decoded;
+    // placeholder arrays repeat across translations, share them like the compact storage mode
+    private final TranslationPool pool = new TranslationPool(false);
+
+    private TranslationBundle(File file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a translation bundle " + file);
+        int version = buffer.getInt(4);
+        if (version != VERSION)
+            throw new IOException("Unsupported translation bundle version " + version + " of " + file);
+        if (buffer.getInt(8) != buffer.capacity())
+            throw new IOException("Corrupt translation bundle " + file + ", it is truncated");
+
+        int locales = buffer.getInt(12);
+        this.keys = buffer.getInt(16);
+        int entries = buffer.getInt(20);
+        int capacity = buffer.getInt(24);
+        this.stringCount = buffer.getInt(28);
+        if (locales < 0 || this.keys < 0 || entries < 0 || this.stringCount < 0 || Integer.bitCount(capacity) != 1)
+            throw new IOException("Corrupt translation bundle " + file);
+        this.mask = capacity - 1;
+        this.index = HEADER + locales * 8;
+        this.rows = this.index + capacity * 4;
+        this.rowLength = (2 + locales) * 4;
+        this.entries = this.rows + this.keys * this.rowLength;
+        this.strings = this.entries + entries * 4;
+        if ((long) this.strings + this.stringCount * 4L > buffer.capacity())
+            throw new IOException("Corrupt translation bundle " + file);
+
+        this.locales = new Locale[locales];
+        this.sizes = new int[locales];
+        for (int i = 0; i < locales; i++) {
+            this.locales[i] = Locale.forLanguageTag(this.string(buffer.getInt(HEADER + i * 8)));
+            this.sizes[i] = buffer.getInt(HEADER + i * 8 + 4);
+        }
+        this.decoded = new AtomicReferenceArray<>(entries);
+    }
+
+    /**
+     * Maps a bundle written by {@link #write(Map, Locale, OutputStream)}. The file is not kept open, the mapping
+     * lasts until the bundle is garbage collected.
+     */
+    public static TranslationBundle open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Translation bundle " + file + " is too large");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return new TranslationBundle(file, buffer);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException cause) {
+            throw new IOException("Corrupt translation bundle " + file, cause);
+        }
+    }
+
+    /**
+     * Writes the given translations, lazy translations are compiled first.
+     *
+     * @param fallback the locale whose translations are used for keys missing in the other locales
+     * @throws IllegalArgumentException if a translation can not be compiled
+     */
+    public static void write(Map<Locale, Map<String, TranslationFormat>> languages, Locale fallback,
+                             OutputStream outputStream) throws IOException {
+        Locale[] locales = languages.keySet().toArray(new Locale[0]);
+        int defaultIndex = Arrays.asList(locales).indexOf(fallback);
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Locale locale : locales) {
+            index(strings, locale.toLanguageTag());
+        }
+
+        Map<String, Integer> rows = new LinkedHashMap<>();
+        for (Map<String, TranslationFormat> translations : languages.values()) {
+            for (String key : translations.keySet()) {
+                rows.putIfAbsent(key, rows.size());
+            }
+        }
+        List<TranslationFormat> entries = new ArrayList<>();
+        List<Integer> entryLocales = new ArrayList<>();
+        int[] cells = new int[rows.size() * locales.length];
+        for (int locale = 0; locale < locales.length; locale++) {
+            for (Map.Entry<String, TranslationFormat> entry : languages.get(locales[locale]).entrySet()) {
+                entries.add(entry.getValue().compile());
+                entryLocales.add(locale);
+                cells[rows.get(entry.getKey()) * locales.length + locale] = entries.size();
+            }
+        }
+        if (defaultIndex >= 0) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                int defaultCell = cells[cell - cell % locales.length + defaultIndex];
+                if (cells[cell] == 0 && defaultCell > 0)
+                    cells[cell] = -defaultCell;
+            }
+        }
+
+        // keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(rows.size(), 1)) << 2;
+        int[] index = new int[capacity];
+        for (Map.Entry<String, Integer> row : rows.entrySet()) {
+            int slot = hash(row.getKey()) & (capacity - 1);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            index[slot] = row.getValue() + 1;
+            index(strings, row.getKey());
+        }
+        int entryLength = 0;
+        for (TranslationFormat translationFormat : entries) {
+            index(strings, translationFormat.pattern());
+            for (String modifier : translationFormat.modifiers()) {
+                if (modifier != null)
+                    index(strings, modifier);
+            }
+            entryLength += (3 + translationFormat.offsets().length * 4) * 4;
+        }
+        List<byte[]> bytes = new ArrayList<>(strings.size());
+        for (String string : strings.keySet()) {
+            bytes.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long data = HEADER + locales.length * 8L + capacity * 4L + (long) rows.size() * (2 + locales.length) * 4
+                + entries.size() * 4L + strings.size() * 4L;
+        long length = data + entryLength;
+        for (byte[] string : bytes) {
+            length += 4 + string.length;
+        }
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("Translations are too large for a bundle");
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt((int) length);
+        out.writeInt(locales.length);
+        out.writeInt(rows.size());
+        out.writeInt(entries.size());
+        out.writeInt(capacity);
+        out.writeInt(strings.size());
+        for (Locale locale : locales) {
+            out.writeInt(strings.get(locale.toLanguageTag()));
+            out.writeInt(languages.get(locale).size());
+        }
+        for (int slot : index) {
+            out.writeInt(slot);
+        }
+        for (String key : rows.keySet()) {
+            out.writeInt(key.hashCode());
+            out.writeInt(strings.get(key));
+            int row = rows.get(key);
+            for (int locale = 0; locale < locales.length; locale++) {
+                out.writeInt(cells[row * locales.length + locale]);
+            }
+        }
+        int position = (int) data;
+        for (TranslationFormat translationFormat : entries) {
+            out.writeInt(position);
+            position += (3 + translationFormat.offsets().length * 4) * 4;
+        }
+        for (byte[] string : bytes) {
+            out.writeInt(position);
+            position += 4 + string.length;
+        }
+        for (int entry = 0; entry < entries.size(); entry++) {
+            TranslationFormat translationFormat = entries.get(entry);
+            int[] offsets = translationFormat.offsets();
+            int[] argumentNumbers = translationFormat.argumentNumbers();
+            int[] types = translationFormat.types();
+            String[] modifiers = translationFormat.modifiers();
+            out.writeInt(entryLocales.get(entry));
+            out.writeInt(strings.get(translationFormat.pattern()));
+            out.writeInt(offsets.length);
+            for (int i = 0; i < offsets.length; i++) {
+                out.writeInt(offsets[i]);
+                out.writeInt(argumentNumbers[i]);
+                out.writeInt(types[i]);
+                out.writeInt(modifiers[i] == null ? -1 : strings.get(modifiers[i]));
+            }
+        }
+        for (byte[] string : bytes) {
+            out.writeInt(string.length);
+            out.write(string);
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns the locales of the bundle, in the order they were written.
+     */
+    public List<Locale> getLocales() {
+        return Collections.unmodifiableList(Arrays.asList(this.locales));
+    }
+
+    /**
+     * Returns how many translations the locale at the given index has itself, without those it falls back to.
+     */
+    public int size(int locale) {
+        return this.sizes[locale];
+    }
+
+    public int getKeyCount() {
+        return this.keys;
+    }
+
+    public String getKey(int row) {
+        return this.string(this.buffer.getInt(this.rows + row * this.rowLength + 4));
+    }
+
+    /**
+     * Returns the row of the key, or {@code -1} if no locale has a translation of it.
+     */
+    public int find(String key) {
+        int hash = key.hashCode();
+        for (int slot = spread(hash) & this.mask; ; slot = (slot + 1) & this.mask) {
+            int row = this.buffer.getInt(this.index + slot * 4) - 1;
+            if (row < 0)
+                return -1;
+            int position = this.rows + row * this.rowLength;
+            if (this.buffer.getInt(position) == hash && this.matches(this.buffer.getInt(position + 4), key))
+                return row;
+        }
+    }
+
+    /**
+     * Returns the translation of a row for the locale at the given index, which is decoded on first use,
+     * or {@code null} if neither the locale nor the fallback locale has one.
+     *
+     * @throws IllegalStateException if the bundle is corrupt
+     */
+    public @Nullable TranslationFormat get(int row, int locale) {
+        int cell = this.buffer.getInt(this.rows + row * this.rowLength + 8 + locale * 4);
+        if (cell == 0)
+            return null;
+        int entry = Math.abs(cell) - 1;
+        TranslationFormat translationFormat = this.decoded.get(entry);
+        if (translationFormat == null) {
+            translationFormat = this.decode(entry);
+            if (!this.decoded.compareAndSet(entry, null, translationFormat))
+                translationFormat = this.decoded.get(entry);
+        }
+        return translationFormat;
+    }
+
+    /**
+     * Returns whether the translation of a row for the locale at the given index is its own,
+     * rather than missing or the one of the fallback locale.
+     */
+    public boolean isOwn(int row, int locale) {
+        return this.buffer.getInt(this.rows + row * this.rowLength + 8 + locale * 4) > 0;
+    }
+
+    private TranslationFormat decode(int entry) {
+        try {
+            int position = this.buffer.getInt(this.entries + entry * 4);
+            Locale locale = this.locales[this.buffer.getInt(position)];
+            String pattern = this.pool.intern(this.string(this.buffer.getInt(position + 4)));
+            int placeholders = this.buffer.getInt(position + 8);
+            Format[] formats = new Format[placeholders];
+            int[] offsets = new int[placeholders];
+            int[] argumentNumbers = new int[placeholders];
+            int[] types = new int[placeholders];
+            String[] modifiers = new String[placeholders];
+            for (int i = 0; i < placeholders; i++) {
+                int placeholder = position + 12 + i * 16;
+                offsets[i] = this.buffer.getInt(placeholder);
+                argumentNumbers[i] = this.buffer.getInt(placeholder + 4);
+                types[i] = this.buffer.getInt(placeholder + 8);
+                int modifier = this.buffer.getInt(placeholder + 12);
+                if (modifier >= 0)
+                    modifiers[i] = this.string(modifier);
+                if (types[i] != 0)
+                    formats[i] = TranslationFormat.format(locale, types[i], modifiers[i]);
+            }
+            return new TranslationFormat(locale, pattern, this.pool.intern(formats), this.pool.intern(offsets),
+                    this.pool.intern(argumentNumbers), this.pool.intern(types), this.pool.intern(modifiers));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException cause) {
+            throw new IllegalStateException("Corrupt translation bundle " + this.file, cause);
+        }
+    }
+
+    private String string(int string) {
+        if (string < 0 || string >= this.stringCount)
+            throw new IndexOutOfBoundsException("string " + string);
+        int position = this.buffer.getInt(this.strings + string * 4);
+        byte[] bytes = new byte[this.buffer.getInt(position)];
+        ByteBuffer slice = this.buffer.duplicate();
+        // cast for Java 8, which lacks the covariant override newer JDKs link against
+        ((Buffer) slice).position(position + 4);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a string of the table with the key without decoding it, as long as the key is ASCII.
+     */
+    private boolean matches(int string, String key) {
+        int position = this.buffer.getInt(this.strings + string * 4);
+        int length = this.buffer.getInt(position);
+        if (length != key.length())
+            return length > key.length() && this.string(string).equals(key);
+        for (int i = 0; i < length; i++) {
+            char ch = key.charAt(i);
+            if (ch >= 0x80)
+                return this.string(string).equals(key);
+            if (this.buffer.get(position + 4 + i) != ch)
+                return false;
+        }
+        return true;
+    }
+
+    private static int hash(String key) {
+        return spread(key.hashCode());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int index(Map<String, Integer> strings, String string) {
+        Integer index = strings.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+        return index;
+    }
+}
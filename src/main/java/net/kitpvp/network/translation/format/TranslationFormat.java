@@ -1,12 +1,16 @@
 package net.kitpvp.network.translation.format;
 
+import java.io.IOException;
 import java.text.*;
+import java.time.format.FormatStyle;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Locale;
 
 public class TranslationFormat {
 
     private static final int INITIAL_FORMATS = 2;
+    private static final int INITIAL_ARGUMENT_LENGTH = 8;
     // Indices for segments
     private static final int SEG_RAW = 0;
     private static final int SEG_INDEX = 1;
@@ -58,42 +62,329 @@ public class TranslationFormat {
     };
 
     // Date-time style values corresponding to the date-time modifiers.
-    private static final int[] DATE_TIME_MODIFIERS = {
-            DateFormat.DEFAULT,
-            DateFormat.SHORT,
-            DateFormat.MEDIUM,
-            DateFormat.LONG,
-            DateFormat.FULL,
+    private static final FormatStyle[] DATE_TIME_STYLES = {
+            FormatStyle.MEDIUM,
+            FormatStyle.SHORT,
+            FormatStyle.MEDIUM,
+            FormatStyle.LONG,
+            FormatStyle.FULL,
     };
 
-    private final String translation;
+    // source of the pattern, dropped once compiled unless retained
+    private volatile String translation;
     private final Locale locale;
+    private final boolean retainSource;
 
     public TranslationFormat(String translation, Locale locale) {
+        this(translation, locale, true, true);
+    }
+
+    TranslationFormat(String translation, Locale locale, boolean compile, boolean retainSource) {
         this.translation = translation;
         this.locale = locale;
-        this.applyPattern();
+        this.retainSource = retainSource;
+        if (compile) {
+            this.applyPattern();
+            this.compiled = true;
+            this.dropSource();
+        }
+    }
+
+    /**
+     * Creates a compiled translation from precompiled parts, see {@link TranslationBundle}.
+     */
+    TranslationFormat(Locale locale, String pattern, Format[] formats, int[] offsets, int[] argumentNumbers,
+                      int[] types, String[] modifiers) {
+        this.locale = locale;
+        this.retainSource = false;
+        this.pattern = pattern;
+        this.formats = formats;
+        this.offsets = offsets;
+        this.argumentNumbers = argumentNumbers;
+        this.types = types;
+        this.modifiers = modifiers;
+        this.maxOffset = offsets.length - 1;
+        this.argumentLength = offsets.length * INITIAL_ARGUMENT_LENGTH;
+        this.substitution = isSubstitution(formats);
+        this.compiled = true;
+    }
+
+    /**
+     * Creates a translation which only checks the structure of the pattern and compiles it on first use.
+     * Invalid number, date or choice patterns are therefore only reported when the translation is formatted.
+     */
+    public static TranslationFormat lazy(String translation, Locale locale) {
+        checkSyntax(translation);
+        return new TranslationFormat(translation, locale, false, true);
+    }
+
+    /**
+     * Compiles the pattern of a {@link #lazy(String, Locale) lazy} translation, if it was not compiled yet.
+     */
+    public TranslationFormat compile() {
+        if (!compiled) {
+            synchronized (this) {
+                if (!compiled) {
+                    this.applyPattern();
+                    this.compiled = true;
+                    this.dropSource();
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Compiles the translation and formats it the given number of times with sample arguments, which loads the
+     * locale data of its formats and lets the JIT compile the formatting code before the first real message.
+     * Only compiling may fail, formats rejecting the samples are left cold.
+     *
+     * @throws IllegalArgumentException if the translation can not be compiled
+     */
+    public TranslationFormat warm(int rounds) {
+        this.compile();
+        if (maxOffset < 0)
+            return this;
+        Object[] args = new Object[0];
+        for (int i = 0; i <= maxOffset; i++) {
+            int argumentNumber = argumentNumbers[i];
+            if (argumentNumber >= args.length)
+                args = Arrays.copyOf(args, argumentNumber + 1);
+            if (args[argumentNumber] == null)
+                args[argumentNumber] = sampleArgument(formats[i]);
+        }
+        // the sample messages should not skew the estimate of the real ones
+        int argumentLength = this.argumentLength;
+        try {
+            for (int i = 0; i < rounds; i++) {
+                this.format(args);
+            }
+        } catch (RuntimeException ignored) {
+            // the sample does not suit every format, e.g. ranges of fixed indexes, which is no error of the translation
+        } finally {
+            this.argumentLength = argumentLength;
+        }
+        return this;
+    }
+
+    private static Object sampleArgument(Format format) {
+        if (format == null)
+            return "sample";
+        if (format instanceof RangeFormat)
+            return new long[]{1, 2, 3};
+        // numbers, epoch milliseconds and choices
+        return 1234L;
+    }
+
+    private void dropSource() {
+        // cleared after compiled is set, so a reader seeing no source always sees the pattern
+        if (!retainSource) {
+            this.translation = null;
+        }
+    }
+
+    public boolean isCompiled() {
+        return compiled;
     }
 
     @Override
     public String toString() {
         return "TranslationFormat{" +
-                "translation='" + translation + '\'' +
+                "translation='" + (translation != null ? translation : pattern) + '\'' +
                 ", locale=" + locale +
                 '}';
     }
 
+    /**
+     * Formats the message into a new string. A message without placeholders returns its cached text, and a message
+     * whose placeholders have no format type and are all filled with strings is built in one exactly sized buffer.
+     */
+    public final String format(Object[] args) {
+        if (!compiled) {
+            this.compile();
+        }
+        if (maxOffset < 0) {
+            return pattern;
+        }
+        if (substitution) {
+            String formatted = substitute(args);
+            if (formatted != null)
+                return formatted;
+        }
+        return format(args, new StringBuilder(estimateLength())).toString();
+    }
+
+    public final String format(long arg) {
+        return this.format(null, 0, arg, 0, false);
+    }
+
+    public final String format(double arg) {
+        return this.format(null, 0, 0, arg, true);
+    }
+
+    public final String format(Object first, long second) {
+        return this.format(first, 1, second, 0, false);
+    }
+
+    public final String format(Object first, double second) {
+        return this.format(first, 1, 0, second, true);
+    }
+
     public final StringBuffer format(Object[] args, StringBuffer buffer) {
-        return subformat(args, buffer);
+        return buffer.append(format(args, new StringBuilder(estimateLength())));
+    }
+
+    public final StringBuilder format(Object[] args, StringBuilder builder) {
+        return this.format(args, builder, Integer.MAX_VALUE);
     }
 
+    /**
+     * Formats the message with ranges stopping to append elements once their output reaches the given number
+     * of characters, see {@link RangeFormat}.
+     */
+    public final String format(Object[] args, int rangeOutputLimit) {
+        if (rangeOutputLimit == Integer.MAX_VALUE)
+            return this.format(args);
+        return this.format(args, new StringBuilder(estimateLength()), rangeOutputLimit).toString();
+    }
+
+    public final StringBuilder format(Object[] args, StringBuilder builder, int rangeOutputLimit) {
+        if (!compiled) {
+            this.compile();
+        }
+        if (args != null && maxOffset > 0)
+            args = RangeFormat.collectStreams(args);
+        int start = builder.length();
+        subformat(args, builder, rangeOutputLimit);
+        if (maxOffset >= 0) {
+            this.recordArgumentLength(builder.length() - start - pattern.length());
+        }
+        return builder;
+    }
+
+    public final <A extends Appendable> A format(Object[] args, A appendable) throws IOException {
+        if (appendable instanceof StringBuilder) {
+            format(args, (StringBuilder) appendable);
+        } else {
+            appendable.append(format(args, new StringBuilder(estimateLength())));
+        }
+        return appendable;
+    }
+
+    /**
+     * Returns the expected length of a formatted message, made up of the literal text and a
+     * running estimate of the characters contributed by the arguments of previous calls.
+     */
+    public int estimateLength() {
+        String translation = this.translation;
+        if (translation != null && !compiled) {
+            return translation.length();
+        }
+        return pattern.length() + argumentLength;
+    }
+
+    Locale locale() {
+        return locale;
+    }
+
+    String pattern() {
+        return pattern;
+    }
+
+    Format[] formats() {
+        return formats;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] argumentNumbers() {
+        return argumentNumbers;
+    }
+
+    /**
+     * Returns the format type keyword index of every placeholder, {@code 0} for placeholders without a format.
+     */
+    int[] types() {
+        return types;
+    }
+
+    String[] modifiers() {
+        return modifiers;
+    }
+
+    /**
+     * Returns whether the translation is compiled and has no placeholders, formatting it then returns its text.
+     */
+    public boolean isLiteral() {
+        return compiled && maxOffset < 0;
+    }
+
+    /**
+     * Replaces the compiled state with the equal instances held by the pool.
+     * Only called before the translation is published.
+     */
+    void intern(TranslationPool pool) {
+        pattern = pool.intern(pattern);
+        formats = pool.intern(formats);
+        offsets = pool.intern(offsets);
+        argumentNumbers = pool.intern(argumentNumbers);
+        types = pool.intern(types);
+        modifiers = pool.intern(modifiers);
+    }
+
+    private void recordArgumentLength(int length) {
+        // grow at once so the next call does not resize again, shrink slowly so
+        // a single short message does not undersize the following ones
+        int estimate = argumentLength;
+        if (length > estimate) {
+            argumentLength = length;
+        } else if (length < estimate) {
+            argumentLength = estimate - ((estimate - length) >> 4);
+        }
+    }
+
+    // compiled state, written before compiled is set
+    private volatile boolean compiled;
     private String pattern;
-    private Format[] formats = new Format[INITIAL_FORMATS];
-    private int[] offsets = new int[INITIAL_FORMATS];
-    private int[] argumentNumbers = new int[INITIAL_FORMATS];
+    private Format[] formats;
+    private int[] offsets;
+    private int[] argumentNumbers;
+    // type and modifier each format was created from, so the translation can be written to a bundle
+    private int[] types;
+    private String[] modifiers;
     private int maxOffset;
+    // whether no placeholder has a format type
+    private boolean substitution;
+    // races between threads only ever lose an update of the estimate
+    private int argumentLength;
+
+    /**
+     * Inserts the string arguments into the literal text, or returns {@code null} if any argument is not a string.
+     */
+    private String substitute(Object[] args) {
+        if (args == null)
+            return null;
+        int length = pattern.length();
+        for (int i = 0; i <= maxOffset; ++i) {
+            int argumentNumber = argumentNumbers[i];
+            if (argumentNumber >= args.length || !(args[argumentNumber] instanceof String))
+                return null;
+            length += ((String) args[argumentNumber]).length();
+        }
 
-    private StringBuffer subformat(Object[] args, StringBuffer appendTo) {
+        StringBuilder builder = new StringBuilder(length);
+        int lastOffset = 0;
+        for (int i = 0; i <= maxOffset; ++i) {
+            builder.append(pattern, lastOffset, offsets[i]);
+            lastOffset = offsets[i];
+            builder.append((String) args[argumentNumbers[i]]);
+        }
+        return builder.append(pattern, lastOffset, pattern.length()).toString();
+    }
+
+    private StringBuilder subformat(Object[] args, StringBuilder appendTo, int rangeOutputLimit) {
         int lastOffset = 0;
         for (int i = 0; i <= maxOffset; ++i) {
             appendTo.append(pattern, lastOffset, offsets[i]);
@@ -103,44 +394,97 @@ public class TranslationFormat {
                 appendTo.append('{').append(argumentNumber).append('}');
                 continue;
             }
-            Object obj = args[argumentNumber];
-            String arg = null;
-            Format subFormatter = null;
-            if (obj == null) {
-                arg = "null";
-            } else if (formats[i] != null) {
-                subFormatter = formats[i];
-                if (subFormatter instanceof ChoiceFormat) {
-                    arg = formats[i].format(obj);
-                }
-            } else if (obj instanceof Number) {
-                // format number if can
-                subFormatter = NumberFormat.getInstance(locale);
-            } else if (obj instanceof Date) {
-                // format a Date if can
-                subFormatter = DateFormat.getDateTimeInstance(
-                        DateFormat.SHORT, DateFormat.SHORT, locale);//fix
-            } else if (obj instanceof String) {
-                arg = (String) obj;
-            } else {
-                arg = obj.toString();
-                if (arg == null) arg = "null";
-            }
+            this.append(i, args[argumentNumber], appendTo, rangeOutputLimit);
+        }
+        return appendTo.append(pattern, lastOffset, pattern.length());
+    }
 
-            // At this point we are in two states, either subFormatter
-            // is non-null indicating we should format obj using it,
-            // or arg is non-null and we should use it as the value.
+    private void append(int i, Object obj, StringBuilder appendTo, int rangeOutputLimit) {
+        String arg;
+        if (obj == null) {
+            arg = "null";
+        } else if (formats[i] instanceof RangeFormat) {
+            ((RangeFormat) formats[i]).format(obj, appendTo, rangeOutputLimit);
+            return;
+        } else if (formats[i] instanceof NumberFormatter) {
+            ((NumberFormatter) formats[i]).format(obj, appendTo);
+            return;
+        } else if (formats[i] instanceof TemporalFormatter) {
+            ((TemporalFormatter) formats[i]).format(obj, appendTo);
+            return;
+        } else if (formats[i] != null) {
+            arg = formats[i].format(obj);
+        } else if (obj instanceof Number) {
+            // format number if can
+            SharedFormats.number(locale).format(obj, appendTo);
+            return;
+        } else if (obj instanceof Date) {
+            // format a Date if can
+            SharedFormats.dateTime(locale).format(obj, appendTo);
+            return;
+        } else if (obj instanceof String) {
+            arg = (String) obj;
+        } else {
+            arg = obj.toString();
+            if (arg == null) arg = "null";
+        }
+        appendTo.append(arg);
+    }
 
-            if (subFormatter != null) {
-                arg = subFormatter.format(obj);
-                formats[i] = subFormatter;
+    /**
+     * Formats the message with the number as the last argument, which is only boxed for placeholders
+     * with a format type other than number.
+     */
+    private String format(Object first, int numberIndex, long longValue, double doubleValue, boolean decimal) {
+        if (!compiled) {
+            this.compile();
+        }
+        if (maxOffset < 0) {
+            return pattern;
+        }
+        if (maxOffset > 0)
+            first = RangeFormat.collect(first);
+        StringBuilder builder = new StringBuilder(estimateLength());
+        int lastOffset = 0;
+        for (int i = 0; i <= maxOffset; ++i) {
+            builder.append(pattern, lastOffset, offsets[i]);
+            lastOffset = offsets[i];
+            int argumentNumber = argumentNumbers[i];
+            if (argumentNumber < numberIndex) {
+                this.append(i, first, builder, Integer.MAX_VALUE);
+                continue;
+            }
+            if (argumentNumber > numberIndex) {
+                builder.append('{').append(argumentNumber).append('}');
+                continue;
+            }
+
+            NumberFormatter formatter;
+            if (formats[i] == null) {
+                formatter = SharedFormats.number(locale);
+            } else if (formats[i] instanceof NumberFormatter) {
+                formatter = (NumberFormatter) formats[i];
+            } else {
+                this.append(i, decimal ? (Object) doubleValue : (Object) longValue, builder, Integer.MAX_VALUE);
+                continue;
+            }
+            if (decimal) {
+                formatter.format(doubleValue, builder);
+            } else {
+                formatter.format(longValue, builder);
             }
-            appendTo.append(arg);
         }
-        return appendTo.append(pattern, lastOffset, pattern.length());
+        builder.append(pattern, lastOffset, pattern.length());
+        this.recordArgumentLength(builder.length() - pattern.length());
+        return builder.toString();
     }
 
     private void applyPattern() {
+        formats = new Format[INITIAL_FORMATS];
+        offsets = new int[INITIAL_FORMATS];
+        argumentNumbers = new int[INITIAL_FORMATS];
+        types = new int[INITIAL_FORMATS];
+        modifiers = new String[INITIAL_FORMATS];
         StringBuilder[] segments = new StringBuilder[4];
         segments[SEG_RAW] = new StringBuilder();
 
@@ -150,9 +494,10 @@ public class TranslationFormat {
         boolean inQuote = false;
         maxOffset = -1;
 
-        for (int i = 0; i < this.translation.length(); ++i) {
-            char ch = this.translation.charAt(i);
-            char lookahead = this.translation.length() > i + 1 ? this.translation.charAt(i + 1) : 0;
+        String translation = this.translation;
+        for (int i = 0; i < translation.length(); ++i) {
+            char ch = translation.charAt(i);
+            char lookahead = translation.length() > i + 1 ? translation.charAt(i + 1) : 0;
             if (part == SEG_RAW) {
                 if (ch == '\'' && lookahead == '\'') {
                     inQuote = !inQuote;
@@ -222,6 +567,92 @@ public class TranslationFormat {
             throw new IllegalArgumentException("Unmatched braces in the pattern.");
         }
         this.pattern = segments[0].toString();
+        // the arrays grow in powers of two while parsing, keep only the used part
+        int length = maxOffset + 1;
+        if (formats.length != length) {
+            formats = Arrays.copyOf(formats, length);
+            offsets = Arrays.copyOf(offsets, length);
+            argumentNumbers = Arrays.copyOf(argumentNumbers, length);
+            types = Arrays.copyOf(types, length);
+            modifiers = Arrays.copyOf(modifiers, length);
+        }
+        this.substitution = isSubstitution(formats);
+        this.argumentLength = (maxOffset + 1) * INITIAL_ARGUMENT_LENGTH;
+    }
+
+    private static boolean isSubstitution(Format[] formats) {
+        for (Format format : formats) {
+            if (format != null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Walks the pattern like {@link #applyPattern()} without building any segments, verifying the braces,
+     * argument numbers and format types but not the number, date or choice patterns.
+     */
+    static void checkSyntax(String translation) {
+        int part = SEG_RAW;
+        int segmentStart = 0;
+        int braceStack = 0;
+        boolean inQuote = false;
+
+        for (int i = 0; i < translation.length(); ++i) {
+            char ch = translation.charAt(i);
+            char lookahead = translation.length() > i + 1 ? translation.charAt(i + 1) : 0;
+            if (part == SEG_RAW) {
+                if (ch == '\'' && lookahead == '\'') {
+                    inQuote = !inQuote;
+                } else if (ch == '{' && !inQuote && lookahead != '%') {
+                    part = SEG_INDEX;
+                    segmentStart = i + 1;
+                }
+            } else if (inQuote) {
+                if (ch == '\'' && lookahead == '\'') {
+                    inQuote = false;
+                }
+            } else if (ch == ',' && part < SEG_MODIFIER) {
+                checkSegment(translation, part, segmentStart, i);
+                part++;
+                segmentStart = i + 1;
+            } else if (ch == '{') {
+                ++braceStack;
+            } else if (ch == '}') {
+                if (braceStack == 0) {
+                    checkSegment(translation, part, segmentStart, i);
+                    part = SEG_RAW;
+                } else {
+                    --braceStack;
+                }
+            } else if (ch == '\'' && lookahead == '\'') {
+                inQuote = true;
+            }
+        }
+        if (braceStack == 0 && part != SEG_RAW) {
+            throw new IllegalArgumentException("Unmatched braces in the pattern.");
+        }
+    }
+
+    private static void checkSegment(String translation, int part, int start, int end) {
+        String segment = translation.substring(start, end);
+        if (segment.indexOf('\'') >= 0) {
+            // quoted segments are left to the compiler
+            return;
+        }
+        if (part == SEG_INDEX) {
+            int argumentNumber;
+            try {
+                argumentNumber = Integer.parseInt(segment);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("can't parse argument number: " + segment, e);
+            }
+            if (argumentNumber < 0) {
+                throw new IllegalArgumentException("negative argument number: " + argumentNumber);
+            }
+        } else if (part == SEG_TYPE && !segment.trim().isEmpty() && findKeyword(segment.trim(), TYPE_KEYWORDS) < 0) {
+            throw new IllegalArgumentException("unknown format type: " + segment);
+        }
     }
 
     private void makeFormat(int offsetNumber,
@@ -251,12 +682,18 @@ public class TranslationFormat {
             Format[] newFormats = new Format[newLength];
             int[] newOffsets = new int[newLength];
             int[] newArgumentNumbers = new int[newLength];
+            int[] newTypes = new int[newLength];
+            String[] newModifiers = new String[newLength];
             System.arraycopy(formats, 0, newFormats, 0, maxOffset + 1);
             System.arraycopy(offsets, 0, newOffsets, 0, maxOffset + 1);
             System.arraycopy(argumentNumbers, 0, newArgumentNumbers, 0, maxOffset + 1);
+            System.arraycopy(types, 0, newTypes, 0, maxOffset + 1);
+            System.arraycopy(modifiers, 0, newModifiers, 0, maxOffset + 1);
             formats = newFormats;
             offsets = newOffsets;
             argumentNumbers = newArgumentNumbers;
+            types = newTypes;
+            modifiers = newModifiers;
         }
         int oldMaxOffset = maxOffset;
         maxOffset = offsetNumber;
@@ -265,91 +702,96 @@ public class TranslationFormat {
 
         // now get the format
         Format newFormat = null;
+        int newType = TYPE_NULL;
+        String newModifier = null;
         if (!segments[SEG_TYPE].isEmpty()) {
             int type = findKeyword(segments[SEG_TYPE], TYPE_KEYWORDS);
-            switch (type) {
-                case TYPE_NULL:
-                    // Type "" is allowed. e.g., "{0,}", "{0,,}", and "{0,,#}"
-                    // are treated as "{0}".
-                    break;
-
-                case TYPE_NUMBER:
-                    switch (findKeyword(segments[SEG_MODIFIER], NUMBER_MODIFIER_KEYWORDS)) {
-                        case MODIFIER_DEFAULT:
-                            newFormat = NumberFormat.getInstance(locale);
-                            break;
-                        case MODIFIER_CURRENCY:
-                            newFormat = NumberFormat.getCurrencyInstance(locale);
-                            break;
-                        case MODIFIER_PERCENT:
-                            newFormat = NumberFormat.getPercentInstance(locale);
-                            break;
-                        case MODIFIER_INTEGER:
-                            newFormat = NumberFormat.getIntegerInstance(locale);
-                            break;
-                        default: // DecimalFormat pattern
-                            try {
-                                newFormat = new DecimalFormat(segments[SEG_MODIFIER],
-                                        DecimalFormatSymbols.getInstance(locale));
-                            } catch (IllegalArgumentException e) {
-                                maxOffset = oldMaxOffset;
-                                throw e;
-                            }
-                            break;
-                    }
-                    break;
-
-                case TYPE_DATE:
-                case TYPE_TIME:
-                    int mod = findKeyword(segments[SEG_MODIFIER], DATE_TIME_MODIFIER_KEYWORDS);
-                    if (mod >= 0 && mod < DATE_TIME_MODIFIER_KEYWORDS.length) {
-                        if (type == TYPE_DATE) {
-                            newFormat = DateFormat.getDateInstance(DATE_TIME_MODIFIERS[mod],
-                                    locale);
-                        } else {
-                            newFormat = DateFormat.getTimeInstance(DATE_TIME_MODIFIERS[mod],
-                                    locale);
-                        }
-                    } else {
-                        // SimpleDateFormat pattern
-                        try {
-                            newFormat = new SimpleDateFormat(segments[SEG_MODIFIER], locale);
-                        } catch (IllegalArgumentException e) {
-                            maxOffset = oldMaxOffset;
-                            throw e;
-                        }
-                    }
-                    break;
-
-                case TYPE_CHOICE:
-                    try {
-                        // ChoiceFormat pattern
-                        newFormat = new ChoiceFormat(segments[SEG_MODIFIER]);
-                    } catch (Exception e) {
-                        maxOffset = oldMaxOffset;
-                        throw new IllegalArgumentException("Choice Pattern incorrect: "
-                                + segments[SEG_MODIFIER], e);
-                    }
-                    break;
-
-                case TYPE_RANGE:
-                    try {
-                        // RangeFormat pattern
-                        newFormat = new RangeFormat(locale, segments[SEG_MODIFIER]);
-                    } catch (Exception e) {
-                        maxOffset = oldMaxOffset;
-                        throw new IllegalArgumentException("Range Pattern incorrect: "
-                                + segments[SEG_MODIFIER], e);
-                    }
-                    break;
-
-                default:
+            if (type < 0) {
+                maxOffset = oldMaxOffset;
+                throw new IllegalArgumentException("unknown format type: " +
+                        segments[SEG_TYPE]);
+            }
+            // Type "" is allowed. e.g., "{0,}", "{0,,}", and "{0,,#}"
+            // are treated as "{0}".
+            if (type != TYPE_NULL) {
+                String modifier = segments[SEG_MODIFIER];
+                try {
+                    newFormat = format(locale, type, modifier);
+                } catch (IllegalArgumentException e) {
                     maxOffset = oldMaxOffset;
-                    throw new IllegalArgumentException("unknown format type: " +
-                            segments[SEG_TYPE]);
+                    throw e;
+                }
+                newType = type;
+                newModifier = modifier;
             }
         }
         formats[offsetNumber] = newFormat;
+        types[offsetNumber] = newType;
+        modifiers[offsetNumber] = newModifier;
+    }
+
+    /**
+     * Returns the shared format for the given type keyword index and modifier.
+     */
+    static Format format(Locale locale, int type, String modifier) {
+        return SharedFormats.get(locale, type, modifier, () -> createFormat(type, modifier, locale));
+    }
+
+    private static Format createFormat(int type, String modifier, Locale locale) {
+        Format newFormat;
+        switch (type) {
+            case TYPE_NUMBER:
+                switch (findKeyword(modifier, NUMBER_MODIFIER_KEYWORDS)) {
+                    case MODIFIER_DEFAULT:
+                        return new NumberFormatter(NumberFormat.getInstance(locale));
+                    case MODIFIER_CURRENCY:
+                        return new NumberFormatter(NumberFormat.getCurrencyInstance(locale));
+                    case MODIFIER_PERCENT:
+                        return new NumberFormatter(NumberFormat.getPercentInstance(locale));
+                    case MODIFIER_INTEGER:
+                        return new NumberFormatter(NumberFormat.getIntegerInstance(locale));
+                    default: // DecimalFormat pattern
+                        return new NumberFormatter(new DecimalFormat(modifier, DecimalFormatSymbols.getInstance(locale)));
+                }
+
+            case TYPE_DATE:
+            case TYPE_TIME:
+                int mod = findKeyword(modifier, DATE_TIME_MODIFIER_KEYWORDS);
+                if (mod >= 0 && mod < DATE_TIME_MODIFIER_KEYWORDS.length) {
+                    if (type == TYPE_DATE) {
+                        return TemporalFormatter.ofStyle(DATE_TIME_STYLES[mod], null, locale);
+                    } else {
+                        return TemporalFormatter.ofStyle(null, DATE_TIME_STYLES[mod], locale);
+                    }
+                }
+                // SimpleDateFormat pattern
+                return TemporalFormatter.ofPattern(modifier, locale);
+
+            case TYPE_CHOICE:
+                try {
+                    // ChoiceFormat pattern
+                    newFormat = new ChoiceFormat(modifier);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("Choice Pattern incorrect: "
+                            + modifier, e);
+                }
+                break;
+
+            case TYPE_RANGE:
+                try {
+                    // RangeFormat pattern, immutable once created
+                    return new RangeFormat(locale, modifier);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("Range Pattern incorrect: "
+                            + modifier, e);
+                }
+
+            default:
+                throw new IllegalArgumentException("unknown format type: " + type);
+        }
+        // compiled formats are shared by every thread translating with them, the
+        // mutable JDK formats therefore get a per-thread copy
+        return new ThreadLocalFormat(newFormat);
     }
 
     private static int findKeyword(String s, String[] list) {
@@ -0,0 +1,97 @@
+package net.kitpvp.network.translation.format;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.text.Format;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares memory between translations compiled together, e.g. all translations of one load.
+ * Identical translations of a locale and translations without placeholders of any locale resolve to the
+ * same instance, and the literal text and placeholder arrays of the compiled patterns are stored once.
+ * Unless the pool is created for debugging, the source of a translation is dropped once it is compiled.
+ * <p>
+ * A pool is only needed while compiling and may be used from multiple threads.
+ */
+public final class TranslationPool {
+
+    private final boolean debug;
+    private final Map<Source, TranslationFormat> translations = new ConcurrentHashMap<>();
+    private final Map<String, TranslationFormat> literals = new ConcurrentHashMap<>();
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<List<Format>, Format[]> formats = new ConcurrentHashMap<>();
+    private final Map<IntArray, int[]> arrays = new ConcurrentHashMap<>();
+    private final Map<List<String>, String[]> stringArrays = new ConcurrentHashMap<>();
+
+    /**
+     * @param debug whether translations keep their source, which is then shown by {@link TranslationFormat#toString()}
+     */
+    public TranslationPool(boolean debug) {
+        this.debug = debug;
+    }
+
+    public TranslationFormat compile(String translation, Locale locale) {
+        return this.translations.computeIfAbsent(new Source(translation, locale), source -> {
+            TranslationFormat translationFormat = new TranslationFormat(translation, locale, true, this.debug);
+            if (translationFormat.isLiteral()) {
+                // literal text formats the same in every locale
+                TranslationFormat shared = this.literals.putIfAbsent(translation, translationFormat);
+                if (shared != null)
+                    return shared;
+            }
+            translationFormat.intern(this);
+            return translationFormat;
+        });
+    }
+
+    /**
+     * Like {@link TranslationFormat#lazy(String, Locale)}, sharing identical translations of a locale.
+     */
+    public TranslationFormat lazy(String translation, Locale locale) {
+        return this.translations.computeIfAbsent(new Source(this.intern(translation), locale), source -> {
+            TranslationFormat.checkSyntax(translation);
+            return new TranslationFormat(source.translation, locale, false, this.debug);
+        });
+    }
+
+    String intern(String string) {
+        String shared = this.strings.putIfAbsent(string, string);
+        return shared != null ? shared : string;
+    }
+
+    Format[] intern(Format[] formats) {
+        // the formats themselves are shared per locale, type and modifier, so equal arrays are common
+        Format[] shared = this.formats.putIfAbsent(Arrays.asList(formats), formats);
+        return shared != null ? shared : formats;
+    }
+
+    int[] intern(int[] array) {
+        int[] shared = this.arrays.putIfAbsent(new IntArray(array), array);
+        return shared != null ? shared : array;
+    }
+
+    String[] intern(String[] array) {
+        String[] shared = this.stringArrays.putIfAbsent(Arrays.asList(array), array);
+        return shared != null ? shared : array;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Source {
+
+        private final String translation;
+        private final Locale locale;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class IntArray {
+
+        private final int[] array;
+    }
+}
@@ -0,0 +1,86 @@
+package net.kitpvp.translation;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestConcurrentTranslation {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20000;
+
+    private static final Locale[] LOCALES = {Locale.GERMANY, Locale.US, new Locale("en", "PT")};
+    private static final String[] PATTERNS = {
+            "You have {0} coins and {1} gems",
+            "Balance: {1,number,currency} ({1,number,percent})",
+            "Killstreak {0,number,integer} - {1,number,#,##0.00}",
+            "Banned until {2,date,short} {2,time,medium}",
+            "Season ends {2,date,dd.MM.yyyy HH:mm}",
+            "Issued {2}",
+            "There {4,choice,0#are no players|1#is one player|1<are many players} online",
+            "Players: {3,range,{0;, ;n-1} and {n}}"
+    };
+
+    @Test
+    public void testConcurrentFormatting() throws InterruptedException, ExecutionException {
+        List<TranslationFormat> formats = new ArrayList<>();
+        for (Locale locale : LOCALES) {
+            for (String pattern : PATTERNS) {
+                formats.add(new TranslationFormat(pattern, locale));
+            }
+        }
+
+        Object[][] arguments = new Object[64][];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = arguments(i);
+        }
+
+        // single-threaded reference output
+        String[][] expected = new String[formats.size()][arguments.length];
+        for (int f = 0; f < formats.size(); f++) {
+            for (int a = 0; a < arguments.length; a++) {
+                expected[f][a] = formats.get(f).format(arguments[a].clone(), new StringBuffer()).toString();
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Random random = new Random(seed);
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        int f = random.nextInt(formats.size());
+                        int a = random.nextInt(arguments.length);
+                        String actual = formats.get(f).format(arguments[a].clone(), new StringBuffer()).toString();
+                        assertEquals(expected[f][a], actual);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Object[] arguments(int seed) {
+        Random random = new Random(seed);
+        List<String> players = new ArrayList<>();
+        for (int i = 0, size = 2 + random.nextInt(5); i < size; i++) {
+            players.add("Player" + random.nextInt(1000));
+        }
+        Date date = new Date(1600000000000L + random.nextInt(Integer.MAX_VALUE) * 1000L);
+        return new Object[]{random.nextInt(1_000_000), random.nextDouble() * 10000, date, players, random.nextInt(3)};
+    }
+}
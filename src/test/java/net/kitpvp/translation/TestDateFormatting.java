@@ -0,0 +1,101 @@
+package net.kitpvp.translation;
+
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Compares dates formatted by translations with the output of {@link DateFormat}.
+ */
+public class TestDateFormatting {
+
+    private static final String[] STYLES = {"", "short", "medium", "long", "full"};
+    private static final int[] DATE_FORMAT_STYLES = {DateFormat.DEFAULT, DateFormat.SHORT, DateFormat.MEDIUM, DateFormat.LONG, DateFormat.FULL};
+    private static final String[] PATTERNS = {
+            "dd.MM.yyyy HH:mm", "d. MMMM yyyy", "EEEE, d MMM yy", "h:mm a", "HH:mm:ss", "yyyy-MM-dd'T'HH:mm",
+            "'Tag' d 'um' H 'Uhr'", "k:mm", "K:mm a", "MMM", "yyyy-MM-dd [HH:mm]", "D", "EEEEE", "w", "z"
+    };
+
+    @Test
+    public void testAgainstDateFormat() throws IOException {
+        Set<Locale> locales = new LinkedHashSet<>(new PropertyLocaleManager(TestDateFormatting.class, "/locales").getLoadedLocales());
+        locales.add(new Locale("pt", "PT"));
+        locales.add(new Locale("pt", "BR"));
+        // buddhist and japanese imperial calendars and arabic-indic digits
+        locales.add(new Locale("th", "TH"));
+        locales.add(new Locale("ja", "JP", "JP"));
+        locales.add(new Locale("ar", "EG"));
+
+        Random random = new Random(42);
+        List<Date> dates = new ArrayList<>();
+        dates.add(new Date(0));
+        dates.add(new Date(1500000000000L));
+        dates.add(new Date(1711846800000L));
+        for (int i = 0; i < 50; i++) {
+            dates.add(new Date(random.nextLong() % 4102444800000L));
+        }
+
+        for (Locale locale : locales) {
+            Map<String, DateFormat> formats = new LinkedHashMap<>();
+            formats.put("{0}", DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale));
+            for (int i = 0; i < STYLES.length; i++) {
+                String style = STYLES[i].isEmpty() ? "" : "," + STYLES[i];
+                formats.put("{0,date" + style + "}", DateFormat.getDateInstance(DATE_FORMAT_STYLES[i], locale));
+                formats.put("{0,time" + style + "}", DateFormat.getTimeInstance(DATE_FORMAT_STYLES[i], locale));
+            }
+            for (String pattern : PATTERNS) {
+                formats.put("{0,date," + pattern + "}", new SimpleDateFormat(pattern, locale));
+            }
+
+            for (Map.Entry<String, DateFormat> entry : formats.entrySet()) {
+                TranslationFormat translationFormat = new TranslationFormat(entry.getKey(), locale);
+                for (Date date : dates) {
+                    String expected = entry.getValue().format(date);
+                    String message = locale + " " + entry.getKey() + " " + date.getTime();
+                    Assert.assertEquals(message, expected, translationFormat.format(new Object[]{date}));
+                    if (!entry.getKey().equals("{0}")) {
+                        Assert.assertEquals(message, expected, translationFormat.format(new Object[]{date.toInstant()}));
+                        Assert.assertEquals(message, expected, translationFormat.format(date.getTime()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTemporalArguments() {
+        ZonedDateTime dateTime = ZonedDateTime.of(2024, 3, 31, 18, 30, 0, 0, ZoneId.of("Europe/Berlin"));
+        TranslationFormat format = new TranslationFormat("Gebannt bis {0,date,dd.MM.yyyy} um {0,time,HH:mm}", Locale.GERMANY);
+        Assert.assertEquals("Gebannt bis 31.03.2024 um 18:30", format.format(new Object[]{dateTime}));
+        Assert.assertEquals("Gebannt bis 31.03.2024 um 18:30", format.format(new Object[]{dateTime.toLocalDateTime()}));
+
+        Instant instant = dateTime.toInstant();
+        String expected = new SimpleDateFormat("dd.MM.yyyy").format(Date.from(instant));
+        Assert.assertEquals(expected, new TranslationFormat("{0,date,dd.MM.yyyy}", Locale.GERMANY).format(new Object[]{instant}));
+    }
+
+    @Test
+    public void testZoneNames() {
+        TimeZone timeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+        try {
+            Date date = new Date(1500000000000L);
+            // compiled formats are shared and keep their zone, use locales no other test formats with
+            for (Locale locale : new Locale[]{new Locale("de", "AT"), new Locale("en", "IE"), new Locale("fr", "BE")}) {
+                Assert.assertEquals(DateFormat.getTimeInstance(DateFormat.FULL, locale).format(date),
+                        new TranslationFormat("{0,time,full}", locale).format(new Object[]{date}));
+            }
+        } finally {
+            TimeZone.setDefault(timeZone);
+        }
+    }
+}
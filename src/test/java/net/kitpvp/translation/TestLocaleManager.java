@@ -0,0 +1,466 @@
+package net.kitpvp.translation;
+
+import net.kitpvp.network.translation.LocaleManager;
+import net.kitpvp.network.translation.TranslationCache;
+import net.kitpvp.network.translation.TranslationStatistics;
+import net.kitpvp.network.translation.exception.InvalidTranslationException;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import net.kitpvp.network.translation.substitute.Substitution;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class TestLocaleManager {
+
+    private static final int KEYS = 2000;
+
+    @Test
+    public void testLookupAndFallback() throws ExecutionException {
+        LocaleManager localeManager = new MapLocaleManager(null);
+
+        for (int i = 0; i < KEYS; i++) {
+            Assert.assertEquals("de " + i, localeManager.translate(LocaleManager.DEFAULT, "key." + i));
+            // only every second key is translated to english
+            Assert.assertEquals((i % 2 == 0 ? "en " : "de ") + i, localeManager.translate(Locale.US, "key." + i));
+            // locales which were never loaded fall back to the default
+            Assert.assertEquals("de " + i, localeManager.translate(Locale.FRANCE, "key." + i));
+        }
+
+        Assert.assertEquals("english only", localeManager.translate(Locale.US, "english.only"));
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                localeManager.translate(LocaleManager.DEFAULT, "english.only"));
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                localeManager.translate(Locale.US, "key." + KEYS));
+    }
+
+    @Test
+    public void testSnapshotIsolation() throws ExecutionException {
+        MutableLocaleManager localeManager = new MutableLocaleManager(null);
+        localeManager.put(Locale.US, "greeting", "Hello");
+        localeManager.putUnindexed(Locale.US, "greeting", "Hi");
+        localeManager.putUnindexed(Locale.FRANCE, "greeting", "Bonjour");
+
+        // changes only become visible once indexed again
+        Assert.assertEquals("Hello", localeManager.translate(Locale.US, "greeting"));
+        Assert.assertEquals(Collections.singletonList(Locale.US), localeManager.getLoadedLocales());
+        Assert.assertEquals(Collections.singleton("greeting"), localeManager.getTranslations(Locale.US).keySet());
+        Assert.assertTrue(localeManager.getTranslations(Locale.FRANCE).isEmpty());
+
+        // unless a lookup misses a translation which was put but not indexed
+        localeManager.putUnindexed(Locale.US, "farewell", "Bye");
+        Assert.assertEquals("Bye", localeManager.translate(Locale.US, "farewell"));
+        Assert.assertEquals("Hi", localeManager.translate(Locale.US, "greeting"));
+        Assert.assertEquals("Bonjour", localeManager.translate(Locale.FRANCE, "greeting"));
+
+        // subclasses which fill the translations without indexing them at all
+        LocaleManager unindexed = new LocaleManager() {
+            {
+                this.languages.put(Locale.US, Collections.singletonMap("greeting", new TranslationFormat("Hello", Locale.US)));
+            }
+        };
+        Assert.assertEquals(Collections.singletonList(Locale.US), unindexed.getLoadedLocales());
+        Assert.assertEquals("Hello", unindexed.translate(Locale.US, "greeting"));
+    }
+
+    @Test
+    public void testPrimitiveOverloads() throws ExecutionException {
+        LocaleManager localeManager = new LocaleManager() {
+            {
+                Map<String, TranslationFormat> translations = new HashMap<>();
+                translations.put("coins", new TranslationFormat("{0} Münzen", LocaleManager.DEFAULT));
+                translations.put("kill", new TranslationFormat("{0} hat {1,number,integer} Kills", LocaleManager.DEFAULT));
+                translations.put("chat", new TranslationFormat("{0}: {1}", LocaleManager.DEFAULT));
+                this.languages.put(LocaleManager.DEFAULT, translations);
+                this.index();
+            }
+        };
+
+        Assert.assertEquals("1.234.567 Münzen", localeManager.translate(LocaleManager.DEFAULT, "coins", 1234567));
+        Assert.assertEquals("1.234,5 Münzen", localeManager.translate(Locale.US, "coins", 1234.5));
+        Assert.assertEquals("Steve hat 1.000 Kills", localeManager.translate(LocaleManager.DEFAULT, "kill", "Steve", 1000));
+        Assert.assertEquals("Steve hat 2 Kills", localeManager.key("kill").translate(LocaleManager.DEFAULT, "Steve", 1.5));
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                localeManager.translate(LocaleManager.DEFAULT, "missing", 1));
+        Assert.assertEquals("missing", LocaleManager.getInstance().translate(LocaleManager.DEFAULT, "missing", "Steve", 1));
+
+        // characters are formatted as text, not widened to their code
+        Assert.assertEquals("§ Münzen", localeManager.translate(LocaleManager.DEFAULT, "coins", '§'));
+        Assert.assertEquals("§ Münzen", localeManager.key("coins").translate(LocaleManager.DEFAULT, '§'));
+        Assert.assertEquals("Steve: x", localeManager.translate(LocaleManager.DEFAULT, "chat", "Steve", 'x'));
+        Assert.assertEquals("Steve: x", localeManager.key("chat").translate(LocaleManager.DEFAULT, "Steve", 'x'));
+    }
+
+    @Test
+    public void testTranslateAll() throws ExecutionException {
+        AtomicInteger substitutions = new AtomicInteger();
+        LocaleManager localeManager = new MapLocaleManager(null);
+        List<Locale> locales = Arrays.asList(Locale.US, LocaleManager.DEFAULT, Locale.FRANCE, Locale.US, Locale.ITALY);
+
+        Map<Locale, String> translations = localeManager.translateAll("key.2", locales);
+        Assert.assertEquals(4, translations.size());
+        Assert.assertEquals("en 2", translations.get(Locale.US));
+        Assert.assertEquals("de 2", translations.get(Locale.FRANCE));
+        // locales falling back to the default share its translation
+        Assert.assertSame(translations.get(LocaleManager.DEFAULT), translations.get(Locale.FRANCE));
+        Assert.assertSame(translations.get(LocaleManager.DEFAULT), translations.get(Locale.ITALY));
+
+        Substitution<String> substitution = (locale, manager) -> {
+            substitutions.incrementAndGet();
+            return locale.getLanguage();
+        };
+        LocaleManager formatting = new LocaleManager() {
+            {
+                Map<String, TranslationFormat> translations = new HashMap<>();
+                translations.put("greeting", new TranslationFormat("Hallo {0}", LocaleManager.DEFAULT));
+                this.languages.put(LocaleManager.DEFAULT, translations);
+                this.index();
+            }
+        };
+        Object[] args = {substitution};
+        translations = formatting.translateAll("greeting", locales, args);
+        Assert.assertEquals("Hallo en", translations.get(Locale.US));
+        Assert.assertEquals("Hallo fr", translations.get(Locale.FRANCE));
+        Assert.assertEquals(4, substitutions.get());
+        Assert.assertSame(substitution, args[0]);
+
+        List<String> received = new ArrayList<>();
+        formatting.translateEach(locales, locale -> locale, (locale, translation) -> received.add(translation), "greeting", "Steve");
+        Assert.assertEquals(Collections.nCopies(locales.size(), "Hallo Steve"), received);
+
+        // a stream is collected once for all locales
+        LocaleManager players = new LocaleManager() {
+            {
+                this.languages.put(LocaleManager.DEFAULT, Collections.singletonMap("players",
+                        new TranslationFormat("Spieler: {0,range,{0;, ;n}}", LocaleManager.DEFAULT)));
+                this.languages.put(Locale.US, Collections.singletonMap("players",
+                        new TranslationFormat("Players: {0,range,{0;, ;n}}", Locale.US)));
+                this.index();
+            }
+        };
+        translations = players.translateAll("players", locales, Stream.of("Steve", "Alex"));
+        Assert.assertEquals("Players: Steve, Alex", translations.get(Locale.US));
+        Assert.assertEquals("Spieler: Steve, Alex", translations.get(Locale.FRANCE));
+        Assert.assertThrows(MissingTranslationException.class, () -> formatting.translateAll("missing", locales));
+    }
+
+    @Test
+    public void testCache() throws ExecutionException {
+        LocaleManager localeManager = new LocaleManager() {
+            {
+                Map<String, TranslationFormat> translations = new HashMap<>();
+                translations.put("score", new TranslationFormat("{0}: {1}", LocaleManager.DEFAULT));
+                translations.put("title", new TranslationFormat("KitPvP", LocaleManager.DEFAULT));
+                this.languages.put(LocaleManager.DEFAULT, translations);
+                this.index();
+            }
+        };
+        TranslationCache cache = new TranslationCache(16);
+        localeManager.setCache(cache);
+        Stat.FORMATS.set(0);
+
+        Assert.assertEquals("Kills: 1", localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, 1));
+        Assert.assertEquals("Kills: 1", localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, 1));
+        Assert.assertEquals("Kills: 1", localeManager.key("score").translate(Locale.US, Stat.KILLS, 1));
+        Assert.assertEquals(1, Stat.FORMATS.get());
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        // mutable arguments are never cached
+        Assert.assertEquals("Kills: [1]", localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, new StringBuilder("[1]")));
+        Assert.assertEquals("Kills: [1]", localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, new StringBuilder("[1]")));
+        Assert.assertEquals(3, Stat.FORMATS.get());
+
+        for (int i = 0; i < 100; i++) {
+            localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, i);
+        }
+        Assert.assertTrue(cache.size() <= 16);
+        Assert.assertEquals(cache.getMisses() - cache.size(), cache.getEvictions());
+
+        int formats = Stat.FORMATS.get();
+        cache.exclude("score");
+        localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, 99);
+        Assert.assertEquals(formats + 1, Stat.FORMATS.get());
+
+        cache.include("score");
+        localeManager.translate(LocaleManager.DEFAULT, "score", Stat.KILLS, 99);
+        Assert.assertEquals(formats + 1, Stat.FORMATS.get());
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+
+        // literal messages skip the cache
+        long misses = cache.getMisses();
+        Assert.assertEquals("KitPvP", localeManager.translate(LocaleManager.DEFAULT, "title"));
+        Assert.assertEquals("KitPvP", localeManager.translate(LocaleManager.DEFAULT, "title", "ignored"));
+        Assert.assertEquals(misses, cache.getMisses());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testParentChain() throws ExecutionException {
+        MutableLocaleManager global = new MutableLocaleManager(null);
+        MutableLocaleManager network = new MutableLocaleManager(global);
+        MutableLocaleManager gamemode = new MutableLocaleManager(network);
+        MutableLocaleManager plugin = new MutableLocaleManager(gamemode);
+        global.put(LocaleManager.DEFAULT, "greeting", "Hallo {0}");
+        global.put(Locale.US, "greeting", "Hello {0}");
+        network.put(Locale.US, "coins", "{0} coins");
+
+        Assert.assertEquals("Hello Steve", plugin.translate(Locale.US, "greeting", "Steve"));
+        Assert.assertEquals("Hallo Steve", plugin.translate(Locale.FRANCE, "greeting", "Steve"));
+        Assert.assertEquals("5 coins", plugin.translate(Locale.US, "coins", 5));
+        Assert.assertEquals("5 coins", plugin.key("coins").translate(Locale.US, 5L));
+        Assert.assertEquals("Hello Steve", plugin.translateTo(new StringBuilder(), Locale.US, "greeting", "Steve").toString());
+        Assert.assertEquals("Hello Steve", plugin.translateAll("greeting", Collections.singleton(Locale.US), "Steve").get(Locale.US));
+        Assert.assertEquals(global.estimateLength(Locale.US, "greeting"), plugin.estimateLength(Locale.US, "greeting"));
+        Assert.assertThrows(MissingTranslationException.class, () -> plugin.translate(Locale.US, "missing"));
+
+        // reloading any manager of the chain is picked up
+        gamemode.put(Locale.US, "greeting", "Welcome {0}");
+        Assert.assertEquals("Welcome Steve", plugin.translate(Locale.US, "greeting", "Steve"));
+        global.put(Locale.US, "missing", "found");
+        Assert.assertEquals("found", plugin.translate(Locale.US, "missing"));
+
+        LocaleManager echo = new MutableLocaleManager(LocaleManager.getInstance());
+        Assert.assertEquals("missing", echo.translate(Locale.US, "missing"));
+    }
+
+    @Test
+    public void testOverridingParent() throws ExecutionException {
+        MutableLocaleManager global = new MutableLocaleManager(null);
+        global.put(Locale.US, "greeting", "Hello {0}");
+        LocaleManager server = new LocaleManager(global) {
+            @Override
+            public String translate(Locale locale, String translationKey, Object... args) throws
+                    InvalidTranslationException, MissingTranslationException {
+                return "[Server] " + super.translate(locale, translationKey, args);
+            }
+        };
+        MutableLocaleManager plugin = new MutableLocaleManager(server);
+        plugin.put(Locale.US, "coins", "{0} coins");
+
+        // parents overriding only translate are asked by every way of translating
+        Assert.assertEquals("[Server] Hello Steve", plugin.translate(Locale.US, "greeting", "Steve"));
+        Assert.assertEquals("[Server] Hello Steve", plugin.translateTo(new StringBuilder(), Locale.US, "greeting", "Steve").toString());
+        Assert.assertEquals("[Server] Hello Steve", server.translateTo(new StringBuilder(), Locale.US, "greeting", "Steve").toString());
+        Assert.assertEquals("[Server] Hello Steve", plugin.tryTranslate(Locale.US, "greeting", "Steve"));
+        Assert.assertEquals("[Server] Hello Steve", plugin.translateAll("greeting", Collections.singleton(Locale.US), "Steve").get(Locale.US));
+        Assert.assertEquals("5 coins", plugin.translateTo(new StringBuilder(), Locale.US, "coins", 5).toString());
+        Assert.assertNotNull(plugin.findFormat(Locale.US, "greeting"));
+        Assert.assertNull(plugin.tryTranslate(Locale.US, "missing"));
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                plugin.translateTo(new StringBuilder(), Locale.US, "missing"));
+    }
+
+    @Test
+    public void testOverridingPrimitives() throws ExecutionException {
+        MutableLocaleManager server = new MutableLocaleManager(null) {
+            @Override
+            public String translate(Locale locale, String translationKey, Object... args) throws
+                    InvalidTranslationException, MissingTranslationException {
+                return "[Server] " + super.translate(locale, translationKey, args);
+            }
+        };
+        server.put(Locale.US, "coins", "{0} coins");
+        server.put(Locale.US, "balance", "{0} has {1} coins");
+
+        // number arguments skip boxing, but not the overriding subclass
+        Assert.assertEquals("[Server] 5 coins", server.translate(Locale.US, "coins", 5));
+        Assert.assertEquals("[Server] 2.5 coins", server.translate(Locale.US, "coins", 2.5));
+        Assert.assertEquals("[Server] Steve has 5 coins", server.translate(Locale.US, "balance", "Steve", 5));
+        Assert.assertEquals("[Server] 5 coins", server.key("coins").translate(Locale.US, 5));
+        Assert.assertEquals("[Server] 5 coins", server.key("coins").translate(Locale.US, (Object) 5));
+        Assert.assertEquals("[Server] 5 coins", server.tryTranslate(Locale.US, "coins", 5));
+        Assert.assertEquals("[Server] 5 coins", server.translateAll("coins", Collections.singleton(Locale.US), 5).get(Locale.US));
+        Assert.assertNull(server.tryTranslate(Locale.US, "missing"));
+
+        // and they are formatted through the cache
+        MutableLocaleManager plugin = new MutableLocaleManager(null);
+        plugin.put(Locale.US, "coins", "{0} coins");
+        TranslationCache cache = new TranslationCache(16);
+        plugin.setCache(cache);
+        Assert.assertEquals("5 coins", plugin.translate(Locale.US, "coins", 5));
+        Assert.assertEquals("5 coins", plugin.key("coins").translate(Locale.US, 5));
+        Assert.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testRangeOutputLimit() throws ExecutionException {
+        MutableLocaleManager localeManager = new MutableLocaleManager(null);
+        localeManager.put(Locale.US, "online", "Online: {0,range,{0;, ;n}}");
+        List<String> players = Arrays.asList("Steve", "Alex", "Herobrine");
+        Assert.assertEquals("Online: Steve, Alex, Herobrine", localeManager.translate(Locale.US, "online", players));
+
+        localeManager.setRangeOutputLimit(8);
+        Assert.assertEquals("Online: Steve, Alex, \u2026", localeManager.translate(Locale.US, "online", players));
+        Assert.assertEquals("Online: Steve, Alex, \u2026", localeManager.key("online").translate(Locale.US, players));
+        Assert.assertEquals("Online: Steve, Alex, \u2026",
+                localeManager.translateTo(new StringBuilder(), Locale.US, "online", players).toString());
+        // translations of a parent are formatted with its limit
+        MutableLocaleManager child = new MutableLocaleManager(localeManager);
+        Assert.assertEquals("Online: Steve, Alex, \u2026", child.translate(Locale.US, "online", players));
+        Assert.assertThrows(IllegalArgumentException.class, () -> localeManager.setRangeOutputLimit(0));
+    }
+
+    @Test
+    public void testParentLocales() throws ExecutionException {
+        MutableLocaleManager global = new MutableLocaleManager(null);
+        MutableLocaleManager server = new MutableLocaleManager(global);
+        MutableLocaleManager plugin = new MutableLocaleManager(server);
+        global.put(LocaleManager.DEFAULT, "greeting", "Hallo {0}");
+        server.put(Locale.US, "greeting", "Hello {0}");
+
+        // locales no parent loaded resolve like the default
+        Assert.assertEquals("Hallo Steve", plugin.translate(Locale.CANADA, "greeting", "Steve"));
+        Assert.assertEquals("Hallo Steve", plugin.translate(Locale.FRANCE, "greeting", "Steve"));
+        Assert.assertEquals("Hello Steve", plugin.translate(Locale.US, "greeting", "Steve"));
+
+        // locales loaded by any parent later are resolved on their own
+        global.put(Locale.CANADA, "greeting", "Hi {0}");
+        Assert.assertEquals("Hi Steve", plugin.translate(Locale.CANADA, "greeting", "Steve"));
+        Assert.assertEquals("Hallo Steve", plugin.translate(Locale.FRANCE, "greeting", "Steve"));
+        server.put(Locale.FRANCE, "greeting", "Salut {0}");
+        Assert.assertEquals("Salut Steve", plugin.translate(Locale.FRANCE, "greeting", "Steve"));
+    }
+
+    @Test
+    public void testMissingTranslations() throws ExecutionException {
+        MutableLocaleManager global = new MutableLocaleManager(null);
+        MutableLocaleManager plugin = new MutableLocaleManager(new MutableLocaleManager(global));
+        global.put(LocaleManager.DEFAULT, "greeting", "Hallo {0}");
+
+        Assert.assertEquals("Hallo Steve", plugin.tryTranslate(Locale.US, "greeting", "Steve"));
+        Assert.assertNotNull(plugin.findFormat(Locale.US, "greeting"));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNull(plugin.tryTranslate(Locale.US, "optional"));
+            Assert.assertNull(plugin.findFormat(Locale.US, "optional"));
+        }
+        Assert.assertEquals(3, plugin.getMissingTranslations());
+
+        // reloading forgets missing keys
+        global.put(LocaleManager.DEFAULT, "optional", "gefunden");
+        Assert.assertEquals("gefunden", plugin.tryTranslate(Locale.US, "optional"));
+
+        MissingTranslationException.setStackTraces(false);
+        try {
+            MissingTranslationException exception = Assert.assertThrows(MissingTranslationException.class, () ->
+                    plugin.translate(Locale.US, "missing"));
+            Assert.assertEquals(0, exception.getStackTrace().length);
+            Assert.assertEquals(4, plugin.getMissingTranslations());
+        } finally {
+            MissingTranslationException.setStackTraces(true);
+        }
+        Assert.assertNotEquals(0, Assert.assertThrows(MissingTranslationException.class, () ->
+                plugin.translate(Locale.US, "missing")).getStackTrace().length);
+    }
+
+    @Test
+    public void testMetrics() throws ExecutionException {
+        MutableLocaleManager global = new MutableLocaleManager(null);
+        MutableLocaleManager plugin = new MutableLocaleManager(global);
+        global.put(LocaleManager.DEFAULT, "greeting", "Hallo {0}");
+        plugin.put(LocaleManager.DEFAULT, "coins", "{0} Münzen");
+        plugin.put(Locale.US, "coins", "{0} coins");
+        TranslationStatistics statistics = new TranslationStatistics(1, 4);
+        plugin.setMetrics(statistics);
+
+        plugin.translate(Locale.US, "coins", 5);
+        plugin.key("coins").translate(Locale.US, "5");
+        plugin.translate(LocaleManager.DEFAULT, "coins", 5.5);
+        plugin.translate(Locale.FRANCE, "coins", 5);
+        plugin.translate(Locale.US, "greeting", "Steve");
+        Assert.assertNull(plugin.tryTranslate(Locale.US, "missing"));
+        Assert.assertThrows(MissingTranslationException.class, () -> plugin.translate(Locale.US, "missing"));
+        plugin.translate(Locale.US, "coins", 5);
+
+        Map<String, TranslationStatistics.KeyStatistics> snapshot = new HashMap<>();
+        for (TranslationStatistics.KeyStatistics keyStatistics : statistics.snapshot()) {
+            snapshot.put(keyStatistics.getLocale() + " " + keyStatistics.getKey(), keyStatistics);
+        }
+        TranslationStatistics.KeyStatistics coins = snapshot.get("en_US coins");
+        Assert.assertEquals(3, coins.getHits());
+        Assert.assertEquals(3, coins.getTimedCalls());
+        Assert.assertEquals("5 coins".length() * 3, coins.getCharacters());
+        Assert.assertTrue(coins.getFormatNanosP50() <= coins.getFormatNanosP99());
+        Assert.assertEquals(1, snapshot.get("de_DE coins").getHits());
+        Assert.assertEquals(1, snapshot.get("fr_FR coins").getLocaleFallbacks());
+        Assert.assertEquals(1, snapshot.get("en_US greeting").getParentFallbacks());
+        // keys beyond the maximum are counted together
+        Assert.assertEquals(2, snapshot.get("en_US " + TranslationStatistics.OTHER).getMisses());
+        Assert.assertEquals(8, statistics.snapshot().stream().mapToLong(TranslationStatistics.KeyStatistics::getCalls).sum());
+
+        plugin.setMetrics(null);
+        plugin.translate(Locale.US, "coins", 5);
+        Assert.assertEquals(3, statistics.snapshot().stream()
+                .filter(keyStatistics -> keyStatistics.getKey().equals("coins") && keyStatistics.getLocale().equals(Locale.US))
+                .findFirst().get().getHits());
+    }
+
+    @Test
+    public void testMissingDefaultLocale() throws ExecutionException {
+        LocaleManager localeManager = new LocaleManager() {
+            {
+                Map<String, TranslationFormat> translations = new HashMap<>();
+                translations.put("greeting", new TranslationFormat("Hello", Locale.US));
+                this.languages.put(Locale.US, translations);
+                this.index();
+            }
+        };
+
+        Assert.assertEquals("Hello", localeManager.translate(Locale.US, "greeting"));
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                localeManager.translate(Locale.FRANCE, "greeting"));
+    }
+
+    private enum Stat {
+        KILLS;
+
+        private static final AtomicInteger FORMATS = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            FORMATS.incrementAndGet();
+            return "Kills";
+        }
+    }
+
+    private static class MutableLocaleManager extends LocaleManager {
+
+        MutableLocaleManager(LocaleManager parent) {
+            super(parent);
+        }
+
+        void put(Locale locale, String key, String translation) {
+            this.languages.computeIfAbsent(locale, language -> new HashMap<>())
+                    .put(key, new TranslationFormat(translation, locale));
+            this.index();
+        }
+
+        void putUnindexed(Locale locale, String key, String translation) {
+            this.languages.computeIfAbsent(locale, language -> new HashMap<>())
+                    .put(key, new TranslationFormat(translation, locale));
+        }
+    }
+
+    private static class MapLocaleManager extends LocaleManager {
+
+        MapLocaleManager(LocaleManager parent) {
+            super(parent);
+            Map<String, TranslationFormat> german = new HashMap<>();
+            Map<String, TranslationFormat> english = new HashMap<>();
+            for (int i = 0; i < KEYS; i++) {
+                german.put("key." + i, new TranslationFormat("de " + i, LocaleManager.DEFAULT));
+                if (i % 2 == 0)
+                    english.put("key." + i, new TranslationFormat("en " + i, Locale.US));
+            }
+            english.put("english.only", new TranslationFormat("english only", Locale.US));
+            this.languages.put(LocaleManager.DEFAULT, german);
+            this.languages.put(Locale.US, english);
+            this.index();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package net.kitpvp.translation;
+
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.*;
+
+/**
+ * Compares numbers formatted by translations with the output of {@link NumberFormat}.
+ */
+public class TestNumberFormatting {
+
+    private static final long[] LONGS = {
+            0, 1, -1, 7, 12, 999, 1000, -1000, 1234, 65536, 1234567, -987654321, 1_000_000_000_000L,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 100
+    };
+    private static final double[] DOUBLES = {
+            0, -0.0, 0.5, -0.5, 1.25, 0.1, 0.001, 0.0005, 2.675, 1234.5, -1234.5678, 1e15, 9.999e15, 1e20,
+            123456789.123, 0.125, 0.375, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    @Test
+    public void testAgainstNumberFormat() throws IOException {
+        Set<Locale> locales = new LinkedHashSet<>(new PropertyLocaleManager(TestNumberFormatting.class, "/locales").getLoadedLocales());
+        locales.add(new Locale("pt", "PT"));
+        locales.add(new Locale("pt", "BR"));
+        locales.add(new Locale("de", "CH"));
+
+        Random random = new Random(42);
+        List<Number> values = new ArrayList<>();
+        for (long value : LONGS) {
+            values.add(value);
+        }
+        for (double value : DOUBLES) {
+            values.add(value);
+        }
+        for (int i = 0; i < 500; i++) {
+            values.add(random.nextLong() >> random.nextInt(63));
+            values.add(random.nextInt(2_000_000) / 1000d - 1000);
+            values.add(random.nextInt(20_000) / 100d);
+            values.add(random.nextDouble() * Math.pow(10, random.nextInt(12)));
+        }
+
+        for (Locale locale : locales) {
+            Map<String, NumberFormat> formats = new LinkedHashMap<>();
+            formats.put("{0}", NumberFormat.getInstance(locale));
+            formats.put("{0,number}", NumberFormat.getInstance(locale));
+            formats.put("{0,number,integer}", NumberFormat.getIntegerInstance(locale));
+            formats.put("{0,number,percent}", NumberFormat.getPercentInstance(locale));
+            formats.put("{0,number,currency}", NumberFormat.getCurrencyInstance(locale));
+            for (String pattern : new String[]{"#,##0.00", "0.#", "000.000", "#,##0;(#,##0)", "#", "0.00E0"}) {
+                formats.put("{0,number," + pattern + "}", new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale)));
+            }
+
+            for (Map.Entry<String, NumberFormat> entry : formats.entrySet()) {
+                TranslationFormat translationFormat = new TranslationFormat(entry.getKey(), locale);
+                for (Number value : values) {
+                    String expected = entry.getValue().format(value);
+                    String message = locale + " " + entry.getKey() + " " + value;
+                    Assert.assertEquals(message, expected, translationFormat.format(new Object[]{value}));
+                    if (value instanceof Long) {
+                        Assert.assertEquals(message, expected, translationFormat.format(value.longValue()));
+                    } else {
+                        Assert.assertEquals(message, expected, translationFormat.format(value.doubleValue()));
+                    }
+                }
+            }
+        }
+    }
+}
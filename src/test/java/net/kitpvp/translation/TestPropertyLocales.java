@@ -1,18 +1,41 @@
 package net.kitpvp.translation;
 
+import net.kitpvp.network.translation.BundleCompiler;
 import net.kitpvp.network.translation.EchoLocaleManager;
+import net.kitpvp.network.translation.LoadOptions;
 import net.kitpvp.network.translation.LocaleManager;
 import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.PropertyLocaleWatcher;
+import net.kitpvp.network.translation.TranslationKey;
+import net.kitpvp.network.translation.TranslationStatistics;
+import net.kitpvp.network.translation.UsageProfile;
 import net.kitpvp.network.translation.exception.MissingTranslationException;
+import net.kitpvp.network.translation.format.TranslationFormat;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Locale;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TestPropertyLocales {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testPropertyLocaleManager() throws IOException, ExecutionException {
         PropertyLocaleManager localeManager = new PropertyLocaleManager(TestPropertyLocales.class, "/locales");
@@ -56,4 +79,399 @@ public class TestPropertyLocales {
                 localeManager.translate(new Locale("en", "PT"), "warps.nodamage.description", 33)
         .replace('\n', ' '));
     }
+
+    @Test
+    public void testTranslateTo() throws IOException, ExecutionException {
+        PropertyLocaleManager parent = new PropertyLocaleManager(TestPropertyLocales.class, "/fallback");
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(parent, TestPropertyLocales.class, "/locales");
+
+        StringBuilder builder = new StringBuilder("Chat: ");
+        localeManager.translateTo(builder, new Locale("en", "PT"), "translation", "lul");
+        Assert.assertEquals("Chat: Diese Übersetzung wurde gejoinked lul!", builder.toString());
+
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                localeManager.translateTo(builder, LocaleManager.DEFAULT, "translation.missing"));
+        Assert.assertEquals("Chat: Diese Übersetzung wurde gejoinked lul!", builder.toString());
+
+        StringWriter writer = new StringWriter();
+        localeManager.translateTo(writer, Locale.US, "translation.test", "33");
+        Assert.assertEquals("This is a test! 33", writer.toString());
+    }
+
+    @Test
+    public void testTranslationKey() throws IOException, ExecutionException {
+        PropertyLocaleManager parent = new PropertyLocaleManager(TestPropertyLocales.class, "/fallback");
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(parent, TestPropertyLocales.class, "/locales");
+        TranslationKey test = localeManager.key("translation.test");
+        TranslationKey translation = localeManager.key("translation");
+
+        Assert.assertEquals("Das ist ein Test! 33", test.translate(LocaleManager.DEFAULT, "33"));
+        Assert.assertEquals("This is a test! 33", test.translate(Locale.US, "33"));
+        Assert.assertEquals("Das ist ein Test! 33", test.translate(Locale.CANADA, "33"));
+        Assert.assertEquals("Diese Übersetzung wurde gejoinked lul!", translation.translate(new Locale("en", "PT"), "lul"));
+        Assert.assertThrows(MissingTranslationException.class, () ->
+                localeManager.key("translation.missing").translate(LocaleManager.DEFAULT));
+
+        Assert.assertEquals("translation.test", EchoLocaleManager.INSTANCE.key("translation.test").translate(Locale.US));
+    }
+
+    @Test
+    public void testTranslationKeyAfterReload() throws IOException, ExecutionException {
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}]");
+        write(folder, "de.properties", "greeting=Hallo {0}");
+
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(folder);
+        TranslationKey greeting = localeManager.key("greeting");
+        Assert.assertEquals("Hallo Steve", greeting.translate(LocaleManager.DEFAULT, "Steve"));
+
+        write(folder, "de.properties", "greeting=Moin {0}");
+        localeManager.reloadLocaleManager(folder);
+        Assert.assertEquals("Moin Steve", greeting.translate(LocaleManager.DEFAULT, "Steve"));
+    }
+
+    @Test
+    public void testInitOverride() throws IOException, ExecutionException {
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}]");
+        write(folder, "de.properties", "greeting=Hallo {0}");
+        File extra = temporaryFolder.newFolder();
+        write(extra, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}]");
+        write(extra, "de.properties", "farewell=Tschüss {0}");
+
+        // subclasses overriding the loading of folders, e.g. to add their own
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(folder) {
+            @Override
+            protected void init(File[] folders) throws IOException {
+                super.init(new File[]{folders[0], extra});
+            }
+        };
+        Assert.assertEquals("Hallo Steve", localeManager.translate(LocaleManager.DEFAULT, "greeting", "Steve"));
+        Assert.assertEquals("Tschüss Steve", localeManager.translate(LocaleManager.DEFAULT, "farewell", "Steve"));
+
+        write(extra, "de.properties", "farewell=Bis dann {0}");
+        localeManager.reloadLocaleManager(folder);
+        Assert.assertEquals("Bis dann Steve", localeManager.translate(LocaleManager.DEFAULT, "farewell", "Steve"));
+    }
+
+    @Test
+    public void testConcurrentReload() throws Exception {
+        File first = temporaryFolder.newFolder();
+        File second = temporaryFolder.newFolder();
+        for (File folder : new File[]{first, second}) {
+            write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}," +
+                    "{\"language\": \"en\", \"country\": \"US\", \"file\": \"en.properties\"}]");
+        }
+        StringBuilder german = new StringBuilder(), english = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            german.append("key.").append(i).append("=Erste {0}\n");
+            english.append("key.").append(i).append("=First {0}\n");
+        }
+        write(first, "de.properties", german.toString());
+        write(first, "en.properties", english.toString());
+        write(second, "de.properties", german.toString().replace("Erste", "Zweite"));
+        write(second, "en.properties", english.toString().replace("First", "Second"));
+
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(first);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                readers.add(executor.submit(() -> {
+                    int i = 0;
+                    while (running.get()) {
+                        String translation = localeManager.translate(Locale.US, "key." + (i++ % 500), "x");
+                        Assert.assertTrue(translation, translation.equals("First x") || translation.equals("Second x"));
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 20; i++) {
+                localeManager.reloadLocaleManager(i % 2 == 0 ? second : first);
+            }
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(Arrays.asList(LocaleManager.DEFAULT, Locale.US), localeManager.getLoadedLocales());
+    }
+
+    @Test
+    public void testWatcher() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}," +
+                "{\"language\": \"en\", \"country\": \"US\", \"file\": \"en.properties\"}]");
+        write(folder, "de.properties", "greeting=Hallo {0}\nfarewell=Tschüss {0}");
+        write(folder, "en.properties", "greeting=Hello {0}\nfarewell=Bye {0}");
+
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(folder);
+        TranslationFormat farewell = localeManager.getTranslations(Locale.US).get("farewell");
+        TranslationFormat german = localeManager.getTranslations(LocaleManager.DEFAULT).get("greeting");
+
+        try (PropertyLocaleWatcher ignored = localeManager.watch(50, TimeUnit.MILLISECONDS)) {
+            write(folder, "en.properties", "greeting=Howdy {0}\nfarewell=Bye {0}\nwelcome=Welcome {0}");
+            awaitTranslation(localeManager, Locale.US, "greeting", "Howdy Steve");
+
+            Assert.assertEquals("Welcome Steve", localeManager.translate(Locale.US, "welcome", "Steve"));
+            // unchanged translations are not compiled again
+            Assert.assertSame(farewell, localeManager.getTranslations(Locale.US).get("farewell"));
+            Assert.assertSame(german, localeManager.getTranslations(LocaleManager.DEFAULT).get("greeting"));
+
+            write(folder, "en.properties", "greeting=Howdy {0}");
+            awaitTranslation(localeManager, Locale.US, "farewell", "Tschüss Steve");
+
+            // a manual reload is applied under the same lock, later changes are compiled against it
+            write(folder, "de.properties", "greeting=Servus {0}\nfarewell=Tschüss {0}");
+            localeManager.reloadLocaleManager(folder);
+            Assert.assertEquals("Servus Steve", localeManager.translate(LocaleManager.DEFAULT, "greeting", "Steve"));
+            write(folder, "en.properties", "greeting=Hi {0}");
+            awaitTranslation(localeManager, Locale.US, "greeting", "Hi Steve");
+            Assert.assertEquals("Servus Steve", localeManager.translate(LocaleManager.DEFAULT, "greeting", "Steve"));
+
+            // translations switched to a bundle are not overwritten by the folder
+            File bundle = new File(temporaryFolder.getRoot(), "watched.bundle");
+            BundleCompiler.compile(new File[]{folder}, bundle);
+            localeManager.reloadBundle(bundle);
+            write(folder, "en.properties", "greeting=Hey {0}");
+            Thread.sleep(500);
+            Assert.assertEquals("Hi Steve", localeManager.translate(Locale.US, "greeting", "Steve"));
+        }
+    }
+
+    private static void awaitTranslation(LocaleManager localeManager, Locale locale, String key, String expected)
+            throws ExecutionException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!expected.equals(localeManager.translate(locale, key, "Steve"))) {
+            if (System.currentTimeMillis() > deadline)
+                Assert.fail("Translation " + key + " was not reloaded");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void testParallelLoading() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            LoadOptions options = new LoadOptions().setExecutor(executor);
+            PropertyLocaleManager parent = new PropertyLocaleManager(null, TestPropertyLocales.class, "/fallback", options);
+            PropertyLocaleManager localeManager = new PropertyLocaleManager(parent, TestPropertyLocales.class, "/locales", options);
+
+            Assert.assertEquals("Das ist ein Test! 33", localeManager.translate(LocaleManager.DEFAULT, "translation.test", "33"));
+            Assert.assertEquals("Dieser test wurde gejoinked lul", localeManager.translate(new Locale("en", "PT"), "translation.test", "lul"));
+            Assert.assertEquals("Diese Übersetzung wurde gejoinked lul!", localeManager.translate(new Locale("en", "PT"), "translation", "lul"));
+            Assert.assertEquals(Arrays.asList(LocaleManager.DEFAULT, Locale.US, new Locale("en", "PT")), localeManager.getLoadedLocales());
+
+            File folder = temporaryFolder.newFolder();
+            write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}," +
+                    "{\"language\": \"en\", \"country\": \"US\", \"file\": \"en.properties\"}]");
+            write(folder, "de.properties", "broken=Kaputt {0");
+            write(folder, "en.properties", "broken=Broken {0");
+            // the first broken file in the index is reported, no matter which one failed first
+            for (int i = 0; i < 10; i++) {
+                IllegalArgumentException cause = Assert.assertThrows(IllegalArgumentException.class, () ->
+                        new PropertyLocaleManager(null, folder, options));
+                Assert.assertEquals("Could not parse translation key broken at " + new File(folder, "de.properties").getPath()
+                        + ":1: 'Kaputt {0'", cause.getMessage());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLazyLoading() throws IOException, ExecutionException {
+        LoadOptions options = new LoadOptions().setLazy(true).setPrewarm(Collections.singleton("translation"));
+        PropertyLocaleManager parent = new PropertyLocaleManager(null, TestPropertyLocales.class, "/fallback", options);
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(parent, TestPropertyLocales.class, "/locales", options);
+
+        Assert.assertTrue(parent.getTranslations(Locale.US).get("translation").isCompiled());
+        Assert.assertFalse(parent.getTranslations(Locale.US).get("warps.nodamage.description").isCompiled());
+        Assert.assertFalse(localeManager.getTranslations(Locale.US).get("translation.test").isCompiled());
+
+        Assert.assertEquals("This is a test! 33", localeManager.translate(Locale.US, "translation.test", "33"));
+        Assert.assertTrue(localeManager.getTranslations(Locale.US).get("translation.test").isCompiled());
+        Assert.assertEquals("Diese Übersetzung wurde gejoinked lul!",
+                localeManager.translate(new Locale("en", "PT"), "translation", "lul"));
+    }
+
+    @Test
+    public void testUsageProfile() throws IOException, ExecutionException {
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}," +
+                "{\"language\": \"en\", \"country\": \"US\", \"file\": \"en.properties\"}]");
+        write(folder, "de.properties", "coins={0,number} Münzen\nkills={0} Kills\ntitle=KitPvP\nrare=Selten {0,date,short}\n" +
+                "top=Top: {0,range,{0;, ;n-5}}");
+        write(folder, "en.properties", "coins={0,number} coins\nkills={0} kills");
+        File file = new File(temporaryFolder.getRoot(), "profile/usage.tsv");
+
+        // the first start has no profile yet and loads everything
+        UsageProfile profile = UsageProfile.read(file);
+        Assert.assertTrue(profile.isEmpty());
+        LoadOptions options = new LoadOptions().setProfile(profile);
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(null, folder, options);
+        Assert.assertTrue(localeManager.getTranslations(LocaleManager.DEFAULT).get("rare").isCompiled());
+
+        TranslationStatistics statistics = new TranslationStatistics();
+        localeManager.setUsageProfile(profile);
+        for (int i = 0; i < 100; i++) {
+            // recorded on every path, with and without metrics
+            if (i == 50)
+                localeManager.setMetrics(statistics);
+            if (i % 2 == 0) {
+                localeManager.translate(Locale.US, "coins", 1000 + i);
+                localeManager.key("kills").translate(Locale.FRANCE, (Object) i);
+            } else {
+                localeManager.key("coins").translate(Locale.US, 1000 + i);
+                localeManager.translateAll("kills", Collections.singleton(Locale.FRANCE), i);
+            }
+        }
+        localeManager.setMetrics(null);
+        localeManager.translate(LocaleManager.DEFAULT, "rare", new Date());
+        for (int i = 0; i < 50; i++) {
+            localeManager.translate(LocaleManager.DEFAULT, "top", Arrays.asList("a", "b", "c", "d", "e", "f"));
+        }
+        Assert.assertThrows(MissingTranslationException.class, () -> localeManager.translate(Locale.US, "missing"));
+        Assert.assertEquals(100, profile.getCount(Locale.US, "coins"));
+        Assert.assertEquals(100, profile.getCount(Locale.FRANCE, "kills"));
+        Assert.assertEquals(0, profile.getCount(Locale.US, "missing"));
+        Assert.assertEquals(100, statistics.snapshot().stream().mapToLong(TranslationStatistics.KeyStatistics::getCalls).sum());
+        profile.save(file);
+
+        UsageProfile previous = UsageProfile.read(file);
+        Assert.assertEquals(50, previous.getCount(Locale.US, "coins"));
+        Assert.assertEquals(0, previous.getCount(LocaleManager.DEFAULT, "rare"));
+        Map<Locale, Set<String>> hotKeys = previous.getHotKeys(0.99);
+        Assert.assertEquals(Collections.singleton("coins"), hotKeys.get(Locale.US));
+        Assert.assertEquals(Collections.singleton("kills"), hotKeys.get(Locale.FRANCE));
+
+        // the next start warms the hot keys, French falls back to German, and defers the others
+        PropertyLocaleManager restarted = new PropertyLocaleManager(null, folder, options.setProfile(previous));
+        Assert.assertTrue(restarted.getTranslations(Locale.US).get("coins").isCompiled());
+        Assert.assertFalse(restarted.getTranslations(Locale.US).get("kills").isCompiled());
+        Assert.assertTrue(restarted.getTranslations(LocaleManager.DEFAULT).get("kills").isCompiled());
+        Assert.assertFalse(restarted.getTranslations(LocaleManager.DEFAULT).get("coins").isCompiled());
+        Assert.assertFalse(restarted.getTranslations(LocaleManager.DEFAULT).get("rare").isCompiled());
+        Assert.assertEquals("1,234 coins", restarted.translate(Locale.US, "coins", 1234));
+        // the sample arguments do not fit the range, which still is compiled
+        Assert.assertTrue(restarted.getTranslations(LocaleManager.DEFAULT).get("top").isCompiled());
+        Assert.assertEquals("Top: a", restarted.translate(LocaleManager.DEFAULT, "top", Arrays.asList("a", "b", "c", "d", "e", "f")));
+        Assert.assertEquals("Selten 01.01.70", restarted.translate(LocaleManager.DEFAULT, "rare",
+                LocalDate.of(1970, 1, 1)));
+    }
+
+    @Test
+    public void testCompactLoading() throws IOException, ExecutionException {
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}," +
+                "{\"language\": \"en\", \"country\": \"US\", \"file\": \"en.properties\"}]");
+        write(folder, "de.properties", "title=KitPvP\ngreeting=Hallo {0}\nalias=Hallo {0}");
+        write(folder, "en.properties", "title=KitPvP\ngreeting=Hello {0}");
+
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(null, folder, new LoadOptions().setCompact(true).setDebug(false));
+        Map<String, TranslationFormat> german = localeManager.getTranslations(LocaleManager.DEFAULT);
+        Map<String, TranslationFormat> english = localeManager.getTranslations(Locale.US);
+        Assert.assertSame(german.get("title"), english.get("title"));
+        Assert.assertSame(german.get("greeting"), german.get("alias"));
+        Assert.assertNotSame(german.get("greeting"), english.get("greeting"));
+        Assert.assertEquals("Hallo Spieler", localeManager.translate(LocaleManager.DEFAULT, "alias", "Spieler"));
+        Assert.assertEquals("Hello Player", localeManager.translate(Locale.US, "greeting", "Player"));
+        // the source is dropped, only the literal text remains
+        Assert.assertFalse(german.get("greeting").toString().contains("{0}"));
+
+        PropertyLocaleManager debugManager = new PropertyLocaleManager(null, folder,
+                new LoadOptions().setCompact(true).setLazy(true).setDebug(true));
+        Assert.assertEquals("Hallo Spieler", debugManager.translate(LocaleManager.DEFAULT, "greeting", "Spieler"));
+        Assert.assertTrue(debugManager.getTranslations(LocaleManager.DEFAULT).get("greeting").toString().contains("{0}"));
+    }
+
+    @Test
+    public void testBundle() throws IOException, ExecutionException {
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}," +
+                "{\"language\": \"en\", \"country\": \"PT\", \"file\": \"en.properties\"}]");
+        write(folder, "de.properties", "title=KitPvP\n" +
+                "coins={0} hat {1,number,integer} Münzen und {2,number,#,##0.00} Gems\n" +
+                "date=Am {0,date,short} um {0,time,HH:mm}\n" +
+                "players=Es {0,choice,0#sind keine Spieler|1#ist ein Spieler|1<sind {0} Spieler} online\n" +
+                "online=Online: {0,range,{0;, ;n-1} und {n}}");
+        write(folder, "en.properties", "title=KitPvP\ncoins={0} has {1,number,integer} coins and {2,number,percent} gems");
+        File bundle = new File(temporaryFolder.newFolder(), "translations.bin");
+        BundleCompiler.compile(new File[]{folder}, bundle);
+
+        PropertyLocaleManager source = new PropertyLocaleManager(null, folder);
+        PropertyLocaleManager localeManager = PropertyLocaleManager.fromBundle(null, bundle);
+        Assert.assertEquals(source.getLoadedLocales(), localeManager.getLoadedLocales());
+        Object[] args = {"Steve", 1234567, 0.5};
+        Date date = new Date(1500000000000L);
+        for (Locale locale : source.getLoadedLocales()) {
+            Assert.assertEquals(source.translate(locale, "title"), localeManager.translate(locale, "title"));
+            Assert.assertEquals(source.translate(locale, "coins", args), localeManager.translate(locale, "coins", args));
+            Assert.assertEquals(source.translate(locale, "date", date), localeManager.translate(locale, "date", date));
+            Assert.assertEquals(source.translate(locale, "players", 3), localeManager.translate(locale, "players", 3));
+            Assert.assertEquals(source.translate(locale, "online", Arrays.asList("a", "b", "c")),
+                    localeManager.translate(locale, "online", Arrays.asList("a", "b", "c")));
+            Assert.assertEquals(source.getTranslations(locale).keySet(), localeManager.getTranslations(locale).keySet());
+        }
+        // translations are decoded from the mapping once and then kept
+        Assert.assertSame(localeManager.getTranslations(Locale.GERMANY).get("coins"),
+                localeManager.getTranslations(Locale.GERMANY).get("coins"));
+        Assert.assertNull(localeManager.getTranslations(Locale.GERMANY).get("missing"));
+        Assert.assertEquals("Steve has 1,234,567 coins and 50% gems",
+                localeManager.translate(new Locale("en", "PT"), "coins", args));
+
+        write(bundle.getParentFile(), "broken.bin", "KTPB");
+        Assert.assertThrows(IOException.class, () -> PropertyLocaleManager.fromBundle(null, new File(bundle.getParentFile(), "broken.bin")));
+        File truncated = new File(bundle.getParentFile(), "truncated.bin");
+        byte[] bytes = Files.readAllBytes(bundle.toPath());
+        Files.write(truncated.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        IOException cause = Assert.assertThrows(IOException.class, () -> PropertyLocaleManager.fromBundle(null, truncated));
+        Assert.assertTrue(cause.getMessage().startsWith("Corrupt translation bundle"));
+    }
+
+    @Test
+    public void testPropertiesSyntax() throws IOException, ExecutionException {
+        String content = "# comment \\\n" +
+                "! other comment\r\n" +
+                "\n" +
+                "   indented = value with spaces  \n" +
+                "colon:value\r" +
+                "space value\n" +
+                "empty\n" +
+                "escaped\\ key\\=still\\:key = \\u00e4\\t\\u00DF\\n\\x\n" +
+                "continued = first \\\n" +
+                "     second \\\r\n" +
+                "\tthird\n" +
+                "backslashes = even \\\\\n" +
+                "duplicate = first\n" +
+                "duplicate = second\n" +
+                "unicode = Grüße \\\n";
+        File folder = temporaryFolder.newFolder();
+        write(folder, "language.json", "[{\"language\": \"de\", \"country\": \"DE\", \"file\": \"de.properties\"}]");
+        write(folder, "de.properties", content);
+
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        PropertyLocaleManager localeManager = new PropertyLocaleManager(null, folder);
+        Assert.assertEquals(properties.stringPropertyNames(), localeManager.getTranslations(LocaleManager.DEFAULT).keySet());
+        for (String key : properties.stringPropertyNames()) {
+            String expected = new TranslationFormat(properties.getProperty(key), LocaleManager.DEFAULT)
+                    .format(new Object[0], new StringBuilder()).toString();
+            Assert.assertEquals(key, expected, localeManager.translate(LocaleManager.DEFAULT, key));
+        }
+
+        write(folder, "de.properties", "valid = value\nbroken = \\u00g4\n");
+        IllegalArgumentException cause = Assert.assertThrows(IllegalArgumentException.class, () ->
+                new PropertyLocaleManager(null, folder));
+        Assert.assertEquals("Malformed \\uxxxx encoding at " + new File(folder, "de.properties").getPath() + ":2",
+                cause.getMessage());
+    }
+
+    static void write(File folder, String name, String content) throws IOException {
+        Files.write(new File(folder, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -4,9 +4,21 @@ import net.kitpvp.network.translation.LocaleManager;
 import net.kitpvp.network.translation.format.TranslationFormat;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class TestTranslation {
 
@@ -64,4 +76,159 @@ public class TestTranslation {
         assertEquals("This is a message with a range format used (a, b, c, d, e and f)",
                 format.format(new Object[]{Arrays.asList("a", "b", "c", "d", "e", "f")}, new StringBuffer()).toString());
     }
+
+    @Test
+    public void testRangeElements() {
+        TranslationFormat format = new TranslationFormat("{0,range,{0;, ;n-1} and {n}} / {0,range,{1;+;2}} / {0,range,{n-1}}", LocaleManager.DEFAULT);
+        String expected = "1, 2, 3 and 4 / 2+3 / 3";
+        List<Integer> list = Arrays.asList(1, 2, 3, 4);
+        assertEquals(expected, format.format(new Object[]{list.toArray()}));
+        assertEquals(expected, format.format(new Object[]{list}));
+        assertEquals(expected, format.format(new Object[]{new LinkedHashSet<>(list)}));
+        assertEquals(expected, format.format(new Object[]{(Iterable<Integer>) list::iterator}));
+        assertEquals(expected, format.format(new Object[]{new int[]{1, 2, 3, 4}}));
+        assertEquals(expected, format.format(new Object[]{new long[]{1, 2, 3, 4}}));
+        assertEquals(expected, format.format(new Object[]{new short[]{1, 2, 3, 4}}));
+        assertEquals("1,5, 2, 3 and 4 / 2+3 / 3", format.format(new Object[]{new double[]{1.5, 2, 3, 4}}));
+
+        // streams are collected once, so several placeholders can format them
+        assertEquals(expected, format.format(new Object[]{list.stream()}));
+        assertEquals(expected, format.format(new Object[]{IntStream.rangeClosed(1, 4)}));
+        TranslationFormat stream = new TranslationFormat("{0,range,{0;, ;n-1} and {n}}", LocaleManager.DEFAULT);
+        assertEquals("1, 2, 3 and 4", stream.format(new Object[]{list.stream()}));
+        assertEquals("1, 2, 3 and 4", stream.format(new Object[]{IntStream.rangeClosed(1, 4)}));
+
+        assertEquals("1, 2, 3 and 4 / 2+3 / 3", format.format(new Object[]{list}, 5));
+        // elements cut by the output limit are marked
+        assertEquals("10, 11, \u2026 and 13 / 11+12 / 12", format.format(new Object[]{Arrays.asList(10, 11, 12, 13)}, 5));
+        assertEquals("100, 101, \u2026 and 103 / 101+102 / 102", format.format(new Object[]{Arrays.asList(100, 101, 102, 103)}, 5));
+        // there is no limit by default
+        List<String> players = IntStream.range(0, 10000).mapToObj(Integer::toString).collect(Collectors.toList());
+        assertTrue(stream.format(new Object[]{players}).endsWith("9998 and 9999"));
+    }
+
+    @Test
+    public void testRangeLimit() {
+        TranslationFormat format = new TranslationFormat("Online: {0,range,{0;, ;n;3; und # weitere}}", LocaleManager.DEFAULT);
+        assertEquals("Online: a, b", format.format(new Object[]{Arrays.asList("a", "b")}));
+        assertEquals("Online: a, b, c", format.format(new Object[]{Arrays.asList("a", "b", "c")}));
+        assertEquals("Online: a, b, c und 2 weitere", format.format(new Object[]{Arrays.asList("a", "b", "c", "d", "e")}));
+
+        List<Object> players = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            players.add(i == 3 ? new Object() {
+                @Override
+                public String toString() {
+                    throw new AssertionError("formatted element past the limit");
+                }
+            } : "Player" + i);
+        }
+        assertEquals("Online: Player0, Player1, Player2 und 4.997 weitere", format.format(new Object[]{players}));
+
+        TranslationFormat chars = new TranslationFormat("{0,range,{1;, ;n-1;:16;, ###}}", LocaleManager.DEFAULT);
+        assertEquals("Player1, Player2, #4.996", chars.format(new Object[]{players}));
+        assertEquals("Player1", chars.format(new Object[]{players.subList(0, 3)}));
+
+        assertThrows(IllegalArgumentException.class, () -> new TranslationFormat("{0,range,{0;, ;n;x}}", LocaleManager.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> new TranslationFormat("{0,range,{0;, ;n;0}}", LocaleManager.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> new TranslationFormat("{0,range,{n;;;3}}", LocaleManager.DEFAULT));
+    }
+
+    @Test
+    public void testStringBuilder() {
+        TranslationFormat format = new TranslationFormat("This is a message with one argument ({0})", LocaleManager.DEFAULT);
+        StringBuilder builder = new StringBuilder("> ");
+        assertEquals("> This is a message with one argument (replacement)", format.format(new Object[]{"replacement"}, builder).toString());
+    }
+
+    @Test
+    public void testAppendable() throws IOException {
+        TranslationFormat format = new TranslationFormat("This is a message with a range format used ({0,range,{0;, ;n-1} and {n}})", LocaleManager.DEFAULT);
+        StringWriter writer = new StringWriter();
+        format.format(new Object[]{Arrays.asList("a", "b", "c")}, writer);
+        assertEquals("This is a message with a range format used (a, b and c)", writer.toString());
+    }
+
+    @Test
+    public void testStringFastPath() {
+        TranslationFormat literal = new TranslationFormat("A message without arguments", LocaleManager.DEFAULT);
+        assertEquals("A message without arguments", literal.format(new Object[0]));
+        assertSame(literal.format(new Object[0]), literal.format(null));
+
+        TranslationFormat format = new TranslationFormat("{1} killed {0}{2}, {0}!", LocaleManager.DEFAULT);
+        assertEquals("Alex killed Steve, Steve!", format.format(new Object[]{"Steve", "Alex", ""}));
+        assertEquals("Alex killed null{2}, null!", format.format(new Object[]{null, "Alex"}));
+        assertEquals("1.234 killed Steve, Steve!", format.format(new Object[]{"Steve", 1234, ""}));
+        assertEquals("{1} killed {0}{2}, {0}!", format.format(null));
+
+        TranslationFormat typed = new TranslationFormat("{0} has {1,number,integer} coins", LocaleManager.DEFAULT);
+        assertEquals("Steve has 1.234 coins", typed.format(new Object[]{"Steve", 1234}));
+    }
+
+    @Test
+    public void testPrimitiveArguments() {
+        String[] patterns = {
+                "{0} coins",
+                "{0,number} / {0,number,integer} / {0,number,000000} / {0,number,#,##0.00}",
+                "{0,number,percent} / {0,number,currency} / {0,number,#,##0;(#)}",
+                "{0,choice,0#none|1#one|1<{0,number,integer} many}",
+                "{1} and {2}"
+        };
+        Locale[] locales = {LocaleManager.DEFAULT, Locale.US, new Locale("fr", "FR"), new Locale("ar", "EG")};
+        long[] longs = {0, 7, -7, 1234, -1234567, Long.MAX_VALUE, Long.MIN_VALUE};
+        double[] doubles = {0, 0.5, -1.25, 1234.5678, 1e20};
+        for (Locale locale : locales) {
+            for (String pattern : patterns) {
+                TranslationFormat format = new TranslationFormat(pattern, locale);
+                TranslationFormat named = new TranslationFormat("{0}: " + pattern.replace("{0", "{1").replace("{2", "{3"), locale);
+                for (long value : longs) {
+                    assertEquals(format.format(new Object[]{value}, new StringBuilder()).toString(), format.format(value));
+                    assertEquals(named.format(new Object[]{"Steve", value}, new StringBuilder()).toString(), named.format("Steve", value));
+                }
+                for (double value : doubles) {
+                    assertEquals(format.format(new Object[]{value}, new StringBuilder()).toString(), format.format(value));
+                    assertEquals(named.format(new Object[]{"Steve", value}, new StringBuilder()).toString(), named.format("Steve", value));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLengthEstimate() {
+        TranslationFormat format = new TranslationFormat("This is a message with two arguments ({0}, {1})", LocaleManager.DEFAULT);
+        assertEquals("This is a message with two arguments (, )".length() + 16, format.estimateLength());
+
+        String message = format.format(new Object[]{"a rather long first argument", "and a second one"}, new StringBuilder()).toString();
+        assertEquals(message.length(), format.estimateLength());
+
+        format.format(new Object[]{"a", "b"}, new StringBuilder());
+        assertTrue(format.estimateLength() > "This is a message with two arguments (a, b)".length());
+        assertTrue(format.estimateLength() < message.length());
+
+        // the primitive overloads measure the whole message as well, including the literal text after the number
+        TranslationFormat coins = new TranslationFormat("You have {0,number,integer} coins left", LocaleManager.DEFAULT);
+        String coinsMessage = coins.format(123456789123L);
+        assertEquals(coinsMessage.length(), coins.estimateLength());
+    }
+
+    @Test
+    public void testLazyCompilation() {
+        TranslationFormat format = TranslationFormat.lazy("You have {0,number,integer} coins", LocaleManager.DEFAULT);
+        assertFalse(format.isCompiled());
+        assertEquals("You have 1.337 coins", format.format(new Object[]{1337}, new StringBuilder()).toString());
+        assertTrue(format.isCompiled());
+    }
+
+    @Test
+    public void testLazySyntaxCheck() {
+        TranslationFormat.lazy("Quoted ''{0}'' and {0,choice,0#none|1#one {0}} and {%m}color", LocaleManager.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> TranslationFormat.lazy("Unmatched {0", LocaleManager.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> TranslationFormat.lazy("Negative {-1}", LocaleManager.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> TranslationFormat.lazy("Index {a}", LocaleManager.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> TranslationFormat.lazy("Type {0,unknown}", LocaleManager.DEFAULT));
+
+        // modifiers are only validated when the translation is compiled
+        TranslationFormat format = TranslationFormat.lazy("Number {0,number,#.#.#}", LocaleManager.DEFAULT);
+        assertThrows(IllegalArgumentException.class, format::compile);
+    }
 }
@@ -0,0 +1,61 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares dates formatted by translations with {@link SimpleDateFormat}, which translations used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateFormattingBenchmark {
+
+    @Param({"de_DE", "en_US"})
+    public String locale;
+
+    private DateFormat dateFormat;
+    private DateFormat patternFormat;
+    private TranslationFormat dateTranslation;
+    private TranslationFormat patternTranslation;
+    private Date date;
+
+    @Setup
+    public void setup() {
+        Locale locale = Locale.forLanguageTag(this.locale.replace('_', '-'));
+        this.dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+        this.patternFormat = new SimpleDateFormat("dd.MM.yyyy HH:mm", locale);
+        this.dateTranslation = new TranslationFormat("{0}", locale);
+        this.patternTranslation = new TranslationFormat("{0,date,dd.MM.yyyy HH:mm}", locale);
+        this.date = new Date(1711846800000L);
+    }
+
+    @Benchmark
+    public String defaultDateFormat() {
+        return this.dateFormat.format(this.date);
+    }
+
+    @Benchmark
+    public String defaultTranslation() {
+        return this.dateTranslation.format(new Object[]{this.date});
+    }
+
+    @Benchmark
+    public String patternDateFormat() {
+        return this.patternFormat.format(this.date);
+    }
+
+    @Benchmark
+    public String patternTranslation() {
+        return this.patternTranslation.format(new Object[]{this.date});
+    }
+}
@@ -0,0 +1,55 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TranslationFormat#format(Object[])}, which returns literal-only messages as they are and
+ * substitutes plain string arguments in one exactly sized buffer, with the generic formatting path.
+ * Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastPathBenchmark {
+
+    private static final Locale LOCALE = Locale.GERMANY;
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private TranslationFormat literal;
+    private TranslationFormat substitution;
+    private Object[] args;
+
+    @Setup
+    public void setup() {
+        this.literal = new TranslationFormat("This message has no arguments at all and is rather long, like most item descriptions", LOCALE);
+        this.substitution = new TranslationFormat("{0} killed {1} with a {2}", LOCALE);
+        this.args = new Object[]{"Steve", "Alex", "Diamond Sword"};
+    }
+
+    @Benchmark
+    public String literalGeneric() {
+        return this.literal.format(NO_ARGS, new StringBuilder(this.literal.estimateLength())).toString();
+    }
+
+    @Benchmark
+    public String literalFast() {
+        return this.literal.format(NO_ARGS);
+    }
+
+    @Benchmark
+    public String substitutionGeneric() {
+        return this.substitution.format(this.args, new StringBuilder(this.substitution.estimateLength())).toString();
+    }
+
+    @Benchmark
+    public String substitutionFast() {
+        return this.substitution.format(this.args);
+    }
+}
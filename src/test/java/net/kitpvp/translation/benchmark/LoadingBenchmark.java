@@ -0,0 +1,57 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.LoadOptions;
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of loading a bundle of 20 locales with 10k keys each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LoadingBenchmark {
+
+    @Param({"sequential", "parallel", "lazy"})
+    public String mode;
+
+    @Param({"20"})
+    public int locales;
+
+    @Param({"10000"})
+    public int keys;
+
+    private File folder;
+    private LoadOptions options;
+
+    @Setup
+    public void setup() throws IOException {
+        this.folder = SyntheticBundle.write(Files.createTempDirectory("bundle").toFile(), this.locales, this.keys);
+        this.options = new LoadOptions();
+        if (this.mode.equals("parallel")) {
+            this.options.setExecutor(ForkJoinPool.commonPool());
+        } else if (this.mode.equals("lazy")) {
+            this.options.setLazy(true);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.folder);
+    }
+
+    @Benchmark
+    public PropertyLocaleManager load() throws IOException {
+        return new PropertyLocaleManager(null, this.folder, this.options);
+    }
+}
@@ -0,0 +1,70 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.LocaleManager;
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.TranslationKey;
+import net.kitpvp.network.translation.exception.InvalidTranslationException;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up literal translations of a bundle of 20 locales with 10k keys each, so the numbers show the cost of
+ * resolving a key rather than formatting it. Missing keys and parent chains are covered by
+ * {@link MissingTranslationBenchmark} and {@link ParentChainBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LookupBenchmark {
+
+    // literal translations, see SyntheticBundle
+    private static final int KEY = 6;
+
+    private File folder;
+    private LocaleManager localeManager;
+    private String key;
+    private TranslationKey translationKey;
+    private Locale loaded;
+    private Locale fallback;
+
+    @Setup
+    public void setup() throws IOException {
+        this.folder = SyntheticBundle.write(Files.createTempDirectory("bundle").toFile(), 20, 10000);
+        this.localeManager = new PropertyLocaleManager(null, this.folder);
+        // a copy, so the lookup can not take the identity shortcut of interned keys
+        this.key = new String(SyntheticBundle.key(KEY).toCharArray());
+        this.translationKey = this.localeManager.key(this.key);
+        this.loaded = SyntheticBundle.locale(5);
+        this.fallback = Locale.JAPAN;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.folder);
+    }
+
+    @Benchmark
+    public String hit() throws InvalidTranslationException, MissingTranslationException {
+        return this.localeManager.translate(this.loaded, this.key);
+    }
+
+    @Benchmark
+    public String defaultFallback() throws InvalidTranslationException, MissingTranslationException {
+        return this.localeManager.translate(this.fallback, this.key);
+    }
+
+    @Benchmark
+    public String translationKey() throws InvalidTranslationException, MissingTranslationException {
+        return this.translationKey.translate(this.loaded);
+    }
+}
@@ -0,0 +1,57 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.LocaleManager;
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares probing a missing key through exceptions, with and without stack traces, and {@link LocaleManager#tryTranslate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MissingTranslationBenchmark {
+
+    private static final Locale LOCALE = Locale.US;
+    private static final String KEY = "translation.optional";
+
+    @Param({"true", "false"})
+    public boolean stackTraces;
+
+    private LocaleManager localeManager;
+
+    @Setup
+    public void setup() throws IOException {
+        MissingTranslationException.setStackTraces(this.stackTraces);
+        this.localeManager = new LocaleManager(new PropertyLocaleManager(MissingTranslationBenchmark.class, "/locales")) {
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        MissingTranslationException.setStackTraces(true);
+    }
+
+    @Benchmark
+    public String translate() throws ExecutionException {
+        try {
+            return this.localeManager.translate(LOCALE, KEY);
+        } catch (MissingTranslationException cause) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String tryTranslate() throws ExecutionException {
+        return this.localeManager.tryTranslate(LOCALE, KEY);
+    }
+}
@@ -0,0 +1,57 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares numbers formatted by translations with {@link NumberFormat}, which translations used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberFormattingBenchmark {
+
+    @Param({"de_DE", "en_US"})
+    public String locale;
+
+    private NumberFormat numberFormat;
+    private TranslationFormat translationFormat;
+    private long integer;
+    private double decimal;
+
+    @Setup
+    public void setup() {
+        Locale locale = Locale.forLanguageTag(this.locale.replace('_', '-'));
+        this.numberFormat = NumberFormat.getInstance(locale);
+        this.translationFormat = new TranslationFormat("{0}", locale);
+        this.integer = 1234567;
+        this.decimal = 1234.5;
+    }
+
+    @Benchmark
+    public String integerNumberFormat() {
+        return this.numberFormat.format((Object) this.integer);
+    }
+
+    @Benchmark
+    public String integerTranslation() {
+        return this.translationFormat.format(this.integer);
+    }
+
+    @Benchmark
+    public String decimalNumberFormat() {
+        return this.numberFormat.format((Object) this.decimal);
+    }
+
+    @Benchmark
+    public String decimalTranslation() {
+        return this.translationFormat.format(this.decimal);
+    }
+}
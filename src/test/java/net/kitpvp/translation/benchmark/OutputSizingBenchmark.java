@@ -0,0 +1,54 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.exception.InvalidTranslationException;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares default sized output buffers with buffers sized by {@link TranslationFormat#estimateLength()}.
+ * Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputSizingBenchmark {
+
+    private static final Locale LOCALE = new Locale("en", "PT");
+    private static final String KEY = "warps.nodamage.description";
+
+    private PropertyLocaleManager localeManager;
+    private TranslationFormat format;
+    private Object[] args;
+
+    @Setup
+    public void setup() throws IOException {
+        PropertyLocaleManager fallback = new PropertyLocaleManager(OutputSizingBenchmark.class, "/fallback");
+        this.localeManager = new PropertyLocaleManager(fallback, OutputSizingBenchmark.class, "/locales");
+        this.format = new TranslationFormat("Improve yer PvP-Skills at 1v1's\nwithout taking damage\n\n§a{0} Players", LOCALE);
+        this.args = new Object[]{"1234"};
+    }
+
+    @Benchmark
+    public String defaultCapacity() {
+        return this.format.format(this.args, new StringBuilder()).toString();
+    }
+
+    @Benchmark
+    public String estimatedCapacity() {
+        return this.format.format(this.args, new StringBuilder(this.format.estimateLength())).toString();
+    }
+
+    @Benchmark
+    public String translate() throws InvalidTranslationException, MissingTranslationException {
+        return this.localeManager.translate(LOCALE, KEY, this.args);
+    }
+}
@@ -0,0 +1,50 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.LocaleManager;
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.exception.InvalidTranslationException;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares translating a key of the manager itself with a key of the root of a four level hierarchy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParentChainBenchmark {
+
+    private static final Locale LOCALE = Locale.US;
+    private static final String KEY = "translation.test.second";
+
+    private LocaleManager local;
+    private LocaleManager deep;
+
+    @Setup
+    public void setup() throws IOException {
+        this.local = new PropertyLocaleManager(ParentChainBenchmark.class, "/locales");
+        LocaleManager manager = this.local;
+        for (int i = 0; i < 3; i++) {
+            manager = new LocaleManager(manager) {
+            };
+        }
+        this.deep = manager;
+    }
+
+    @Benchmark
+    public String local() throws InvalidTranslationException, MissingTranslationException {
+        return this.local.translate(LOCALE, KEY);
+    }
+
+    @Benchmark
+    public String deep() throws InvalidTranslationException, MissingTranslationException {
+        return this.deep.translate(LOCALE, KEY);
+    }
+}
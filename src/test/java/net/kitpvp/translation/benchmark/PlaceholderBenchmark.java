@@ -0,0 +1,91 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles and formats a translation with a single placeholder of every type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    private static final Locale LOCALE = Locale.GERMANY;
+
+    @Param({"string", "number", "integer", "currency", "decimalPattern", "date", "time", "datePattern", "choice", "range"})
+    public String type;
+
+    private String pattern;
+    private TranslationFormat format;
+    private Object[] args;
+
+    @Setup
+    public void setup() {
+        Object argument;
+        switch (this.type) {
+            case "string":
+                this.pattern = "Welcome to the server, {0}!";
+                argument = "Steve";
+                break;
+            case "number":
+                this.pattern = "You have {0,number} coins";
+                argument = 1234567;
+                break;
+            case "integer":
+                this.pattern = "You have {0,number,integer} coins";
+                argument = 1234.5;
+                break;
+            case "currency":
+                this.pattern = "Balance: {0,number,currency}";
+                argument = 1234.5;
+                break;
+            case "decimalPattern":
+                this.pattern = "Balance: {0,number,#,##0.00}";
+                argument = 1234.5;
+                break;
+            case "date":
+                this.pattern = "Your ban expires on {0,date,short}";
+                argument = new Date(1711846800000L);
+                break;
+            case "time":
+                this.pattern = "Your ban expires at {0,time,short}";
+                argument = new Date(1711846800000L);
+                break;
+            case "datePattern":
+                this.pattern = "Season ends {0,date,dd.MM.yyyy HH:mm}";
+                argument = new Date(1711846800000L);
+                break;
+            case "choice":
+                this.pattern = "There {0,choice,0#are no players|1#is one player|1<are {0,number,integer} players} online";
+                argument = 12;
+                break;
+            case "range":
+                this.pattern = "Online: {0,range,{0;, ;n-1} and {n}}";
+                argument = Arrays.asList("Steve", "Alex", "Notch", "Jeb");
+                break;
+            default:
+                throw new IllegalArgumentException(this.type);
+        }
+        this.format = new TranslationFormat(this.pattern, LOCALE);
+        this.args = new Object[]{argument};
+    }
+
+    @Benchmark
+    public TranslationFormat compile() {
+        return new TranslationFormat(this.pattern, LOCALE);
+    }
+
+    @Benchmark
+    public String format() {
+        return this.format.format(this.args);
+    }
+}
@@ -0,0 +1,41 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive {@link TranslationFormat} overloads with boxed varargs-style arguments.
+ * Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveArgumentBenchmark {
+
+    private TranslationFormat format;
+    private String player;
+    private long coins;
+
+    @Setup
+    public void setup() {
+        this.format = new TranslationFormat("{0} hat jetzt {1} Münzen", Locale.GERMANY);
+        this.player = "Steve";
+        this.coins = 1234567;
+    }
+
+    @Benchmark
+    public String boxed() {
+        return this.format.format(new Object[]{this.player, this.coins});
+    }
+
+    @Benchmark
+    public String primitive() {
+        return this.format.format(this.player, this.coins);
+    }
+}
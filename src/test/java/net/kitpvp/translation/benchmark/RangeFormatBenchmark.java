@@ -0,0 +1,50 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.LocaleManager;
+import net.kitpvp.network.translation.format.TranslationFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats player lists of different sizes with a range placeholder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeFormatBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private TranslationFormat translationFormat;
+    private List<String> list;
+    private Set<String> set;
+
+    @Setup
+    public void setup() {
+        this.translationFormat = new TranslationFormat("Online: {0,range,{0;, ;n-1} and {n}}", LocaleManager.DEFAULT);
+        this.list = new ArrayList<>();
+        for (int i = 0; i < this.size; i++) {
+            this.list.add("Player" + i);
+        }
+        this.set = new LinkedHashSet<>(this.list);
+    }
+
+    @Benchmark
+    public String list() {
+        return this.translationFormat.format(new Object[]{this.list});
+    }
+
+    @Benchmark
+    public String set() {
+        return this.translationFormat.format(new Object[]{this.set});
+    }
+}
@@ -0,0 +1,68 @@
+package net.kitpvp.translation.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+/**
+ * Writes a translation folder with generated locale files, mixing the placeholder types found in real bundles.
+ */
+final class SyntheticBundle {
+
+    private static final String[] LANGUAGES = {
+            "de", "en", "fr", "es", "it", "nl", "pl", "pt", "sv", "da",
+            "fi", "no", "cs", "hu", "ro", "tr", "ru", "uk", "el", "bg"
+    };
+    private static final String[] VALUES = {
+            "Welcome to the server, {0}!",
+            "You have {0} coins and {1,number,integer} gems",
+            "{0} killed {1} with {2} hearts left",
+            "Your ban expires on {0,date,short} at {0,time,short}",
+            "There {0,choice,0#are no players|1#is one player|1<are {0,number,integer} players} online",
+            "Online: {0,range,{0;, ;n-1} and {n}}",
+            "This message has no arguments at all and is rather long, like most item descriptions",
+            "Balance: {0,number,#,##0.00}"
+    };
+
+    private SyntheticBundle() {
+    }
+
+    static Locale locale(int index) {
+        return index == 0 ? Locale.GERMANY : new Locale(LANGUAGES[index % LANGUAGES.length], "XX");
+    }
+
+    static File write(File folder, int locales, int keys) throws IOException {
+        StringBuilder index = new StringBuilder("[");
+        for (int l = 0; l < locales; l++) {
+            Locale locale = locale(l);
+            String file = "bundle_" + l + ".properties";
+            if (l > 0)
+                index.append(',');
+            index.append("{\"language\": \"").append(locale.getLanguage())
+                    .append("\", \"country\": \"").append(locale.getCountry())
+                    .append("\", \"file\": \"").append(file).append("\"}");
+
+            try (Writer writer = Files.newBufferedWriter(new File(folder, file).toPath(), StandardCharsets.UTF_8)) {
+                for (int k = 0; k < keys; k++) {
+                    writer.write(key(k));
+                    writer.write('=');
+                    writer.write('[');
+                    writer.write(locale.getLanguage());
+                    writer.write("] ");
+                    writer.write(VALUES[k % VALUES.length]);
+                    writer.write('\n');
+                }
+            }
+        }
+        index.append(']');
+        Files.write(new File(folder, "language.json").toPath(), index.toString().getBytes(StandardCharsets.UTF_8));
+        return folder;
+    }
+
+    static String key(int index) {
+        return "gamemode.category" + (index % 50) + ".message" + index;
+    }
+}
@@ -0,0 +1,80 @@
+package net.kitpvp.translation.benchmark;
+
+import net.kitpvp.network.translation.LocaleManager;
+import net.kitpvp.network.translation.PropertyLocaleManager;
+import net.kitpvp.network.translation.exception.InvalidTranslationException;
+import net.kitpvp.network.translation.exception.MissingTranslationException;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translates a mix of keys, locales and placeholder types from several threads sharing one manager,
+ * like the network threads of a server do. Compare the score with {@code -t 1} to see how it scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class ThroughputBenchmark {
+
+    private static final int LOCALES = 20;
+    private static final int KEYS = 1000;
+
+    private File folder;
+    private LocaleManager localeManager;
+    private String[] keys;
+    private Locale[] locales;
+    private Object[][] args;
+
+    @Setup
+    public void setup() throws IOException {
+        this.folder = SyntheticBundle.write(Files.createTempDirectory("bundle").toFile(), LOCALES, KEYS);
+        this.localeManager = new PropertyLocaleManager(null, this.folder);
+        this.keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            this.keys[i] = SyntheticBundle.key(i);
+        }
+        this.locales = new Locale[LOCALES];
+        for (int i = 0; i < LOCALES; i++) {
+            this.locales[i] = SyntheticBundle.locale(i);
+        }
+        List<String> players = Arrays.asList("Steve", "Alex", "Notch", "Jeb");
+        // arguments fitting every value of the synthetic bundle
+        this.args = new Object[][]{
+                {"Steve"}, {1234, 56}, {"Steve", "Alex", 3}, {new Date(1711846800000L)},
+                {12}, {players}, {}, {1234.5}
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.folder);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+    }
+
+    @Benchmark
+    public String translate(Cursor cursor) throws InvalidTranslationException, MissingTranslationException {
+        int index = cursor.next++;
+        int key = index % KEYS;
+        // the arguments are cloned, substitutions are replaced in place
+        return this.localeManager.translate(this.locales[index % LOCALES], this.keys[key],
+                this.args[key % this.args.length].clone());
+    }
+}